@@ -0,0 +1,31 @@
+#!/bin/bash
+# Sends the orders of orders_payload.csv through the bulk endpoint as NDJSON, BATCH_SIZE orders per request,
+# and prints the achieved orders/sec. Compare with create_orders_test.yaml (one order per request).
+# Usage: ./create_orders_bulk_test.sh [base-url] [batch-size]
+# (find the base URL with "minikube service foodndeliv-service --url -n default")
+
+BASE_URL=${1:-http://127.0.0.1:8080}
+BATCH_SIZE=${2:-500}
+PAYLOAD_CSV="$(dirname "$0")/orders_payload.csv"
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+# CSV row -> one OrderRequestDTO per line, split into files of BATCH_SIZE lines
+tail -n +2 "$PAYLOAD_CSV" | awk -F, '{
+    printf "{\"customerId\":%s,\"restaurantId\":%s,\"state\":\"OPEN\",\"orderLines\":[{\"productName\":\"%s\",\"quantity\":%s}]}\n", $1, $2, $3, $4
+}' | split -l "$BATCH_SIZE" - "$WORK_DIR/batch_"
+
+total=$(tail -n +2 "$PAYLOAD_CSV" | wc -l)
+start=$(date +%s.%N)
+for batch in "$WORK_DIR"/batch_*; do
+    curl -s -o "$batch.response" -w "%{http_code} " \
+         -H "Content-Type: application/x-ndjson" \
+         --data-binary @"$batch" \
+         "$BASE_URL/api/ctrl/orders/bulk"
+done
+end=$(date +%s.%N)
+echo
+
+created=$(cat "$WORK_DIR"/*.response | grep -o '"created":[0-9]*' | awk -F: '{ sum += $2 } END { print sum + 0 }')
+echo "$created of $total orders created in $(echo "$end - $start" | bc) s" \
+     "($(echo "scale=1; $total / ($end - $start)" | bc) orders/sec)"
@@ -0,0 +1,49 @@
+#!/bin/bash
+# Runs create_orders_test.yaml against the app started without and then with the Hibernate second-level cache,
+# and prints the JDBC statements Hibernate prepared per created order (from the hibernate.statements metric)
+# together with cache hits, misses and latency for both runs.
+# Needs the local Postgres from rundb.sh with the customers, restaurants and menus referenced by
+# orders_payload.csv, plus artillery and jq. Admission control is switched off so that no order is rejected.
+# Usage: ./second_level_cache_test.sh [jar] [port]
+
+cd "$(dirname "$0")" || exit 1
+JAR=${1:-../target/foodndeliv-0.0.1-SNAPSHOT.jar}
+PORT=${2:-8080}
+export DB_PASSWORD=${DB_PASSWORD:-mypass} # rundb.sh default
+
+# Sum of a Prometheus metric's samples whose labels match the given regex
+metric() {
+    curl -s "http://127.0.0.1:$PORT/actuator/prometheus" |
+        awk -v name="$1" -v labels="$2" '$1 ~ "^" name "({|$)" && $1 ~ labels { sum += $NF } END { printf "%d", sum }'
+}
+
+for l2 in false true; do
+    java -jar "$JAR" --server.port="$PORT" \
+         --spring.jpa.properties.hibernate.cache.use_second_level_cache=$l2 \
+         --spring.jpa.properties.hibernate.cache.use_query_cache=$l2 \
+         --spring.jpa.show-sql=false \
+         --foodndeliv.admission.enabled=false > "app_l2_$l2.log" 2>&1 &
+    app_pid=$!
+    until curl -sf "http://127.0.0.1:$PORT/actuator/health" > /dev/null; do
+        kill -0 $app_pid 2> /dev/null || { echo "Application failed to start, see app_l2_$l2.log"; exit 1; }
+        sleep 1
+    done
+
+    statements_before=$(metric hibernate_statements_total 'status="prepared"')
+    orders_before=$(metric foodndeliv_order_create_phase_seconds_count 'phase="lookup"')
+    artillery run --target "http://127.0.0.1:$PORT" --output "report_l2_$l2.json" create_orders_test.yaml > /dev/null
+    statements=$(( $(metric hibernate_statements_total 'status="prepared"') - statements_before ))
+    orders=$(( $(metric foodndeliv_order_create_phase_seconds_count 'phase="lookup"') - orders_before ))
+    hits=$(metric hibernate_second_level_cache_requests_total 'result="hit"')
+    misses=$(metric hibernate_second_level_cache_requests_total 'result="miss"')
+    kill $app_pid
+    wait $app_pid 2> /dev/null
+
+    echo "second-level cache $([ $l2 = true ] && echo on || echo off):"
+    echo "  orders created       $orders"
+    echo "  statements/order     $([ "$orders" -gt 0 ] && awk -v s="$statements" -v o="$orders" 'BEGIN { printf "%.2f", s / o }' || echo n/a)"
+    echo "  L2 hits/misses       $hits/$misses"
+    jq -r '.aggregate as $a |
+        "  p50/p95/p99 ms       \($a.summaries["http.response_time"].median)/\($a.summaries["http.response_time"].p95)/\($a.summaries["http.response_time"].p99)"' \
+        "report_l2_$l2.json"
+done
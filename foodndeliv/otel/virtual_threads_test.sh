@@ -0,0 +1,36 @@
+#!/bin/bash
+# Runs signup_and_order_test.yaml against the app started with platform threads and then with virtual threads,
+# and prints throughput, latency percentiles and error counts for both modes.
+# Needs the local Postgres from rundb.sh, artillery and jq. Admission control is switched off so that
+# the thread model and the connection pool are what limit throughput.
+# Usage: ./virtual_threads_test.sh [jar] [port]
+
+cd "$(dirname "$0")" || exit 1
+JAR=${1:-../target/foodndeliv-0.0.1-SNAPSHOT.jar}
+PORT=${2:-8080}
+export DB_PASSWORD=${DB_PASSWORD:-mypass} # rundb.sh default
+
+for virtual in false true; do
+    java -jar "$JAR" --server.port="$PORT" \
+         --spring.threads.virtual.enabled=$virtual \
+         --spring.jpa.show-sql=false \
+         --foodndeliv.admission.enabled=false > "app_virtual_$virtual.log" 2>&1 &
+    app_pid=$!
+    until curl -sf "http://127.0.0.1:$PORT/actuator/health" > /dev/null; do
+        kill -0 $app_pid 2> /dev/null || { echo "Application failed to start, see app_virtual_$virtual.log"; exit 1; }
+        sleep 1
+    done
+
+    artillery run --target "http://127.0.0.1:$PORT" --output "report_virtual_$virtual.json" signup_and_order_test.yaml > /dev/null
+    kill $app_pid
+    wait $app_pid 2> /dev/null
+
+    jq -r --arg mode "$([ $virtual = true ] && echo virtual || echo platform)" '.aggregate as $a | [
+        "\($mode) threads:",
+        "  requests/sec   \($a.rates["http.request_rate"] // "n/a")",
+        "  2xx            \(([$a.counters | to_entries[] | select(.key | test("^http.codes.2")) | .value] | add) // 0)",
+        "  429/5xx        \(([$a.counters | to_entries[] | select(.key | test("^http.codes.(429|5)")) | .value] | add) // 0)",
+        "  errors         \(([$a.counters | to_entries[] | select(.key | startswith("errors.")) | .value] | add) // 0)",
+        "  p50/p95/p99 ms \($a.summaries["http.response_time"].median)/\($a.summaries["http.response_time"].p95)/\($a.summaries["http.response_time"].p99)"
+    ] | .[]' "report_virtual_$virtual.json"
+done
@@ -0,0 +1,40 @@
+#!/bin/bash
+
+# Starts a streaming read replica of the PostgreSQL container started by rundb.sh,
+# for trying out foodndeliv.datasource.replica-urls locally:
+#   --foodndeliv.datasource.replica-urls=jdbc:postgresql://localhost:5433/ordersdb
+
+export POSTGRES_USER=myadmin
+export POSTGRES_DB=ordersdb
+export PRIMARY_CONTAINER=postgres-ordersdb
+export REPLICA_CONTAINER=postgres-ordersdb-replica
+export REPLICA_PORT=5433
+export REPLICATION_USER=replicator
+export REPLICATION_PASSWORD=replpass
+export NETWORK=ordersdb-net
+
+echo "Starting read replica of $PRIMARY_CONTAINER on port $REPLICA_PORT"
+
+# Both containers on one network so the replica can reach the primary by name
+docker network create $NETWORK > /dev/null 2>&1
+docker network connect $NETWORK $PRIMARY_CONTAINER > /dev/null 2>&1
+
+# Replication role and pg_hba entry on the primary (idempotent)
+docker exec $PRIMARY_CONTAINER psql -U $POSTGRES_USER -d $POSTGRES_DB -c \
+  "DO \$\$ BEGIN IF NOT EXISTS (SELECT FROM pg_roles WHERE rolname = '$REPLICATION_USER') THEN
+     CREATE ROLE $REPLICATION_USER WITH REPLICATION LOGIN PASSWORD '$REPLICATION_PASSWORD'; END IF; END \$\$;"
+docker exec $PRIMARY_CONTAINER bash -c \
+  "grep -q '^host replication $REPLICATION_USER' \$PGDATA/pg_hba.conf || echo 'host replication $REPLICATION_USER all scram-sha-256' >> \$PGDATA/pg_hba.conf"
+docker exec $PRIMARY_CONTAINER psql -U $POSTGRES_USER -d $POSTGRES_DB -c "SELECT pg_reload_conf();"
+
+# Base backup of the primary, then run it as a hot standby (-R writes the standby configuration)
+docker run --name $REPLICA_CONTAINER \
+  --network $NETWORK \
+  --user postgres \
+  -e PGPASSWORD=$REPLICATION_PASSWORD \
+  -p $REPLICA_PORT:5432 \
+  -dit postgres \
+  bash -c "pg_basebackup -h $PRIMARY_CONTAINER -U $REPLICATION_USER -D /var/lib/postgresql/replica -R -X stream \
+           && exec postgres -D /var/lib/postgresql/replica"
+
+echo "Read replica starting ..."
@@ -0,0 +1,77 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.BatchMatcher;
+import com.example.foodndeliv.service.DispatchCostModel;
+import com.example.foodndeliv.service.GeoPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solve time of one batch dispatch window: 10k waiting orders against 10k available riders
+ * spread over a city-sized area (~50 x 50 km), for several partition cell sizes.
+ * Larger cells give better matchings but cost cubically more per cell.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BatchMatchingBenchmark {
+
+    private static final double CITY_LATITUDE = 35.90;
+    private static final double CITY_LONGITUDE = 14.45;
+    private static final double CITY_SPAN_DEGREES = 0.45;
+
+    @Param({"10000"})
+    public int orderCount;
+
+    @Param({"10000"})
+    public int riderCount;
+
+    @Param({"0.02", "0.05", "0.1"})
+    public double cellDegrees;
+
+    private List<BatchMatcher.OrderCandidate> orders;
+    private List<BatchMatcher.RiderCandidate> riders;
+    private Instant now;
+    private ForkJoinPool pool;
+    private BatchMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        now = Instant.now();
+        orders = new ArrayList<>(orderCount);
+        for (long id = 1; id <= orderCount; id++) {
+            orders.add(new BatchMatcher.OrderCandidate(id, randomPoint(random), now.minusSeconds(random.nextInt(900))));
+        }
+        riders = new ArrayList<>(riderCount);
+        for (long id = 1; id <= riderCount; id++) {
+            riders.add(new BatchMatcher.RiderCandidate(id, randomPoint(random)));
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        matcher = new BatchMatcher(new DispatchCostModel(20, 15, 0.5), cellDegrees, 500, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<BatchMatcher.Match> matchWindow() {
+        return matcher.match(orders, riders, now);
+    }
+
+    private static GeoPoint randomPoint(Random random) {
+        return new GeoPoint(CITY_LATITUDE + random.nextDouble() * CITY_SPAN_DEGREES,
+                CITY_LONGITUDE + random.nextDouble() * CITY_SPAN_DEGREES);
+    }
+}
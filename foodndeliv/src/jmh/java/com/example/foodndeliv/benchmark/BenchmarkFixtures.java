@@ -0,0 +1,121 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.entity.Customer;
+import com.example.foodndeliv.entity.MenuItem;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.OrderLine;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.repository.MenuItemRepository;
+import com.example.foodndeliv.types.CustomerState;
+import com.example.foodndeliv.types.OrderState;
+import com.example.foodndeliv.types.RestaurantState;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Realistic in-memory entity graphs shared by the benchmark suites.
+ */
+final class BenchmarkFixtures {
+
+    static final String[] PRODUCTS = {
+            "Classic Burger", "Side Fries", "Soda Drink", "Pizza Margherita", "Caesar Salad",
+            "Chicken Wings", "Veggie Wrap", "Chocolate Shake", "Garlic Bread", "Iced Tea"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("customer-" + id);
+        customer.setEmail("customer-" + id + "@example.org");
+        customer.setState(CustomerState.ACTIVE);
+        return customer;
+    }
+
+    static Restaurant restaurant(long id) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(id);
+        restaurant.setName("restaurant-" + id);
+        restaurant.setAddress(id + " Main Street, Valletta");
+        restaurant.setState(RestaurantState.OPEN);
+        return restaurant;
+    }
+
+    /**
+     * An order with its customer, restaurant and the given number of lines, as loaded for a response.
+     */
+    static Order order(long id, int lineCount) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomer(customer(id % 1_000 + 1));
+        order.setRestaurant(restaurant(id % 50 + 1));
+        order.setState(OrderState.CONFIRMED);
+        order.setOrderDetails("Benchmark order " + id);
+
+        List<OrderLine> lines = new ArrayList<>(lineCount);
+        double total = 0.0;
+        for (int i = 0; i < lineCount; i++) {
+            OrderLine line = new OrderLine();
+            line.setId(id * 100 + i);
+            line.setProductName(PRODUCTS[i % PRODUCTS.length]);
+            line.setQuantity(1 + i % 3);
+            line.setPrice(4.5 + i);
+            line.setOrder(order);
+            lines.add(line);
+            total += line.getQuantity() * line.getPrice();
+        }
+        order.setOrderLines(lines);
+        order.setTotalPrice(total);
+        return order;
+    }
+
+    /**
+     * Order lines as a client would send them (mixed case, so name normalization is exercised).
+     */
+    static List<OrderLineDTO> requestedLines(int lineCount) {
+        List<OrderLineDTO> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            OrderLineDTO line = new OrderLineDTO();
+            String product = PRODUCTS[i % PRODUCTS.length];
+            line.setProductName(i % 2 == 0 ? product : product.toLowerCase(Locale.ROOT));
+            line.setQuantity(1 + i % 3);
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    static List<MenuItem> menu(Restaurant restaurant) {
+        List<MenuItem> menu = new ArrayList<>(PRODUCTS.length);
+        for (int i = 0; i < PRODUCTS.length; i++) {
+            MenuItem item = new MenuItem(restaurant, PRODUCTS[i], 4.5 + i, true);
+            item.setId((long) i + 1);
+            menu.add(item);
+        }
+        return menu;
+    }
+
+    /**
+     * Stand-in MenuItemRepository answering only findByRestaurantId, which is all MenuCatalog needs.
+     */
+    static MenuItemRepository menuRepository(Restaurant restaurant) {
+        List<MenuItem> menu = menu(restaurant);
+        return (MenuItemRepository) Proxy.newProxyInstance(
+                MenuItemRepository.class.getClassLoader(),
+                new Class<?>[]{MenuItemRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByRestaurantId")) {
+                        return menu;
+                    }
+                    if (method.getName().equals("toString")) {
+                        return "BenchmarkMenuItemRepository";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.FoodndelivApplication;
+import com.example.foodndeliv.entity.Customer;
+import com.example.foodndeliv.entity.MenuItem;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.repository.CustomerRepository;
+import com.example.foodndeliv.repository.MenuItemRepository;
+import com.example.foodndeliv.repository.RestaurantRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The application (without the web layer) against the local Postgres started by rundb.sh, plus a seeded
+ * customer, restaurant and menu for benchmarks that go through the real service and repository layers.
+ * close() removes the seeded rows (and, through cascades, the orders created for them) and stops the context.
+ */
+final class DatabaseFixture implements AutoCloseable {
+
+    final ConfigurableApplicationContext context;
+    final Long customerId;
+    final Long restaurantId;
+
+    /**
+     * @param extraArgs Additional --property=value arguments for the application.
+     */
+    DatabaseFixture(String... extraArgs) {
+        String dbPassword = System.getenv().getOrDefault("DB_PASSWORD", "mypass"); // rundb.sh default
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.password=" + dbPassword,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.example.foodndeliv=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+        context = new SpringApplicationBuilder(FoodndelivApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+
+        String suffix = Long.toString(System.nanoTime());
+        Long[] ids = context.getBean(TransactionTemplate.class).execute(status -> {
+            Customer customer = BenchmarkFixtures.customer(0L);
+            customer.setId(null);
+            customer.setName("jmh-customer-" + suffix);
+            customer.setEmail("jmh-" + suffix + "@example.org");
+            Long savedCustomerId = context.getBean(CustomerRepository.class).save(customer).getId();
+
+            Restaurant restaurant = BenchmarkFixtures.restaurant(0L);
+            restaurant.setId(null);
+            restaurant.setName("jmh-restaurant-" + suffix);
+            restaurant = context.getBean(RestaurantRepository.class).save(restaurant);
+
+            List<MenuItem> menu = BenchmarkFixtures.menu(restaurant);
+            menu.forEach(item -> item.setId(null));
+            context.getBean(MenuItemRepository.class).saveAll(menu);
+            return new Long[]{savedCustomerId, restaurant.getId()};
+        });
+        customerId = ids[0];
+        restaurantId = ids[1];
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        // Orders, order lines and menu items go with their owners via cascades
+        context.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            context.getBean(CustomerRepository.class).deleteById(customerId);
+            context.getBean(RestaurantRepository.class).deleteById(restaurantId);
+        });
+        context.close();
+    }
+}
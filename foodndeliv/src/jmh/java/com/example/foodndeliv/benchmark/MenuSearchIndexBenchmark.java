@@ -0,0 +1,74 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant searches over a catalog of menu items named from a small vocabulary, which makes
+ * posting lists long (the costly case for a trigram index). Queries contain one or two typos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MenuSearchIndexBenchmark {
+
+    private static final String[] WORDS = {
+        "pizza", "pasta", "burger", "salad", "soup", "chicken", "beef", "tofu", "curry", "noodles",
+        "rice", "sushi", "taco", "wrap", "fries", "cake", "pie", "tea", "coffee", "juice",
+        "spicy", "cheese", "garlic", "vegan", "grilled", "fried", "sweet", "sour", "hot", "classic",
+        "margherita", "pepperoni", "carbonara", "bolognese", "teriyaki", "tikka", "masala", "falafel", "kebab", "ramen"
+    };
+
+    @Param({"100000", "1000000"})
+    public int items;
+
+    private MenuSearchIndex index;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new MenuSearchIndex(items);
+        for (int i = 0; i < items; i++) {
+            int words = 1 + random.nextInt(3);
+            StringBuilder name = new StringBuilder();
+            for (int w = 0; w < words; w++) {
+                name.append(w > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            if (random.nextInt(4) == 0) {
+                name.append(' ').append(i % 5000); // e.g. "Pizza 42": many distinct names
+            }
+            index.put(i + 1, i / 50, name.toString(), 10.0, random.nextInt(10) != 0);
+        }
+    }
+
+    @Benchmark
+    public List<MenuSearchIndex.Match> oneWordTypo() {
+        return index.search("margerita", 20, 0.5);
+    }
+
+    @Benchmark
+    public List<MenuSearchIndex.Match> twoWordsTypo() {
+        return index.search("spicy chiken", 20, 0.5);
+    }
+
+    @Benchmark
+    public List<MenuSearchIndex.Match> threeWordsTypos() {
+        return index.search("grilld chicken tika", 20, 0.5);
+    }
+
+    /**
+     * A menu edit (rename) racing with searches takes the write lock briefly.
+     */
+    @Benchmark
+    public void rename() {
+        long itemId = 1 + random.nextInt(items);
+        index.put(itemId, itemId / 50, WORDS[random.nextInt(WORDS.length)] + " special", 12.0, true);
+    }
+}
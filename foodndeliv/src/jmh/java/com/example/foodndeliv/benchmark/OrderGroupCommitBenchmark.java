@@ -0,0 +1,71 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.dto.OrderRequestDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.service.OrderGroupCommitter;
+import com.example.foodndeliv.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many concurrent order creations (a flash sale): one transaction per order (OrderService)
+ * versus micro-batched group commit (OrderGroupCommitter), against the local Postgres started by rundb.sh.
+ * Compare throughput, and the p99 from SampleTime for the latency the batching delay adds.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class OrderGroupCommitBenchmark {
+
+    @Param({"1", "5"})
+    public int lineCount;
+
+    @Param({"2", "5"})
+    public long maxDelayMs;
+
+    private DatabaseFixture fixture;
+    private OrderService orderService;
+    private OrderGroupCommitter orderGroupCommitter;
+    private List<OrderLineDTO> requestedLines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new DatabaseFixture(
+                "--foodndeliv.orders.group-commit.enabled=true",
+                "--foodndeliv.orders.group-commit.max-delay-ms=" + maxDelayMs,
+                "--spring.datasource.hikari.maximum-pool-size=40");
+        orderService = fixture.bean(OrderService.class);
+        orderGroupCommitter = fixture.bean(OrderGroupCommitter.class);
+        requestedLines = BenchmarkFixtures.requestedLines(lineCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO createOrderDirect() {
+        return orderService.createOrder(request());
+    }
+
+    @Benchmark
+    public OrderResponseDTO createOrderGroupCommit() {
+        return orderGroupCommitter.createOrder(request());
+    }
+
+    private OrderRequestDTO request() {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(fixture.customerId);
+        request.setRestaurantId(fixture.restaurantId);
+        request.setOrderLines(requestedLines);
+        return request;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.mapper.OrderMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the OrderResponseDTO returned by POST /api/ctrl/orders,
+ * using an ObjectMapper built with Spring's defaults as the HTTP message converter is.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lineCount;
+
+    private OrderResponseDTO response;
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+
+    @Setup
+    public void setUp() {
+        try (AnnotationConfigApplicationContext mapperContext = new AnnotationConfigApplicationContext("com.example.foodndeliv.mapper")) {
+            response = mapperContext.getBean(OrderMapper.class).toResponse(BenchmarkFixtures.order(42L, lineCount));
+        }
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseWriter = objectMapper.writerFor(OrderResponseDTO.class);
+    }
+
+    @Benchmark
+    public byte[] objectMapperWriteValue() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] preboundWriter() throws Exception {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
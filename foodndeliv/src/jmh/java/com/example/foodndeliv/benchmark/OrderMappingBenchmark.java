@@ -0,0 +1,58 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.mapper.OrderMapper;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping of an Order graph: the reflective ModelMapper path the services used
+ * versus the MapStruct-generated OrderMapper that replaced it.
+ * Add "-prof gc" to the JMH arguments to compare allocation per operation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lineCount;
+
+    private Order order;
+    private ModelMapper modelMapper;
+    private AnnotationConfigApplicationContext mapperContext;
+    private OrderMapper orderMapper;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkFixtures.order(42L, lineCount);
+        modelMapper = new ModelMapper(); // Same configuration as the former ModelMapperConfig bean
+        modelMapper.map(order, OrderResponseDTO.class); // Build ModelMapper's type map outside the measurement
+
+        // Generated implementations are Spring components; wire them the way the application does
+        mapperContext = new AnnotationConfigApplicationContext("com.example.foodndeliv.mapper");
+        orderMapper = mapperContext.getBean(OrderMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        mapperContext.close();
+    }
+
+    @Benchmark
+    public OrderResponseDTO modelMapper() {
+        return modelMapper.map(order, OrderResponseDTO.class);
+    }
+
+    @Benchmark
+    public OrderResponseDTO generatedMapper() {
+        return orderMapper.toResponse(order);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.service.MenuCatalog;
+import com.example.foodndeliv.service.OrderPricer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order-line validation and server-side pricing as done by OrderService.createOrder,
+ * with the restaurant's menu already held by MenuCatalog.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lineCount;
+
+    private Restaurant restaurant;
+    private List<OrderLineDTO> requestedLines;
+    private OrderPricer orderPricer;
+
+    @Setup
+    public void setUp() {
+        restaurant = BenchmarkFixtures.restaurant(1L);
+        requestedLines = BenchmarkFixtures.requestedLines(lineCount);
+
+        MenuCatalog menuCatalog = new MenuCatalog();
+        ReflectionTestUtils.setField(menuCatalog, "menuItemRepository", BenchmarkFixtures.menuRepository(restaurant));
+        orderPricer = new OrderPricer();
+        ReflectionTestUtils.setField(orderPricer, "menuCatalog", menuCatalog);
+
+        priceLines(); // Loads the restaurant's menu into the catalog
+    }
+
+    @Benchmark
+    public double priceLines() {
+        Order order = new Order();
+        order.setRestaurant(restaurant);
+        return orderPricer.priceLines(order, requestedLines);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.dto.BulkOrderResponseDTO;
+import com.example.foodndeliv.dto.CursorPageDTO;
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.dto.OrderRequestDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.dto.OrderSummaryDTO;
+import com.example.foodndeliv.entity.MenuItem;
+import com.example.foodndeliv.repository.MenuItemRepository;
+import com.example.foodndeliv.service.BulkOrderService;
+import com.example.foodndeliv.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation and order reads through the real service and repository layers,
+ * against the local Postgres started by rundb.sh (a stand-in for the production database,
+ * so compare runs with each other rather than with production latencies).
+ * Seeds its own customer, restaurant and menu, and removes them (with their orders) afterwards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRepositoryBenchmark {
+
+    // Orders per bulk request in createOrdersBulk
+    private static final int BULK_SIZE = 100;
+
+    @Param({"1", "5", "20"})
+    public int lineCount;
+
+    private DatabaseFixture fixture;
+    private OrderService orderService;
+    private BulkOrderService bulkOrderService;
+    private MenuItemRepository menuItemRepository;
+
+    private Long customerId;
+    private Long restaurantId;
+    private List<OrderLineDTO> requestedLines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new DatabaseFixture();
+        orderService = fixture.bean(OrderService.class);
+        bulkOrderService = fixture.bean(BulkOrderService.class);
+        menuItemRepository = fixture.bean(MenuItemRepository.class);
+        customerId = fixture.customerId;
+        restaurantId = fixture.restaurantId;
+        requestedLines = BenchmarkFixtures.requestedLines(lineCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    /**
+     * Baseline: the per-line menu lookup createOrder used before the MenuCatalog, one query per line.
+     */
+    @Benchmark
+    public double perLineMenuQueries() {
+        double total = 0.0;
+        for (OrderLineDTO line : requestedLines) {
+            MenuItem menuItem = menuItemRepository
+                    .findByRestaurantIdAndProductNameIgnoreCaseAndIsAvailableTrue(restaurantId, line.getProductName().trim())
+                    .orElseThrow();
+            total += menuItem.getPrice() * line.getQuantity();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public OrderResponseDTO createOrder() {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setCustomerId(customerId);
+        request.setRestaurantId(restaurantId);
+        request.setOrderLines(requestedLines);
+        return orderService.createOrder(request);
+    }
+
+    /**
+     * Bulk path, reported per order so it compares directly with createOrder.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public BulkOrderResponseDTO createOrdersBulk() {
+        List<OrderRequestDTO> requests = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            OrderRequestDTO request = new OrderRequestDTO();
+            request.setCustomerId(customerId);
+            request.setRestaurantId(restaurantId);
+            request.setOrderLines(requestedLines);
+            requests.add(request);
+        }
+        return bulkOrderService.createOrders(requests);
+    }
+
+    @Benchmark
+    public CursorPageDTO<OrderSummaryDTO> firstSummariesPage() {
+        return orderService.getOrderSummariesPage(null, null);
+    }
+}
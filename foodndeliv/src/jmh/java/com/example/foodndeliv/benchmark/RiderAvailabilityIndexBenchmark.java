@@ -0,0 +1,45 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.RiderAvailabilityIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended claim/release on the in-memory rider availability index, i.e. the part of a
+ * dispatch that happens before the single conditional rider update in the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class RiderAvailabilityIndexBenchmark {
+
+    @Param({"100", "5000"})
+    public int availableRiders;
+
+    private RiderAvailabilityIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new RiderAvailabilityIndex();
+        for (long riderId = 1; riderId <= availableRiders; riderId++) {
+            index.release(riderId);
+        }
+    }
+
+    /**
+     * One dispatch followed by the rider becoming available again, so the index stays populated.
+     */
+    @Benchmark
+    public Long claimAndRelease() {
+        Long riderId = index.claim();
+        if (riderId != null) {
+            index.release(riderId);
+        }
+        return riderId;
+    }
+}
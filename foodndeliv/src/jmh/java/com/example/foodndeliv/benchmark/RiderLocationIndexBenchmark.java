@@ -0,0 +1,68 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.RiderLocationIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Position updates and k-nearest queries on the in-memory rider location grid,
+ * with riders spread uniformly over a ~30 x 30 km city. 1 in 3 riders counts as unavailable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiderLocationIndexBenchmark {
+
+    private static final double MIN_LATITUDE = 52.25;
+    private static final double MIN_LONGITUDE = 4.75;
+    private static final double SPAN_DEGREES = 0.27;
+
+    @Param({"1000", "50000"})
+    public int riders;
+
+    @Param({"0.005", "0.01", "0.05"})
+    public double cellDegrees;
+
+    private RiderLocationIndex index;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new RiderLocationIndex(cellDegrees, riders);
+        for (long riderId = 1; riderId <= riders; riderId++) {
+            index.update(riderId, randomLatitude(), randomLongitude(), 0L);
+        }
+    }
+
+    /**
+     * One ping: a random rider reports a new position (usually in another cell, the costlier case).
+     */
+    @Benchmark
+    public boolean ping() {
+        long riderId = 1 + random.nextInt(riders);
+        return index.update(riderId, randomLatitude(), randomLongitude(), ++clock);
+    }
+
+    /**
+     * "5 nearest available riders to this restaurant".
+     */
+    @Benchmark
+    public List<RiderLocationIndex.Neighbor> nearestFive() {
+        return index.nearest(randomLatitude(), randomLongitude(), 5, 0L, riderId -> riderId % 3 != 0, 15.0);
+    }
+
+    private double randomLatitude() {
+        return MIN_LATITUDE + random.nextDouble() * SPAN_DEGREES;
+    }
+
+    private double randomLongitude() {
+        return MIN_LONGITUDE + random.nextDouble() * SPAN_DEGREES;
+    }
+}
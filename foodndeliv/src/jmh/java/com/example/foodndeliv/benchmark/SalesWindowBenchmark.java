@@ -0,0 +1,78 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.SalesWindow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording an order into, and querying, one restaurant's full 60-minute sales window
+ * with a menu of the given size (every product sold at least once).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SalesWindowBenchmark {
+
+    private static final int WINDOW_MINUTES = 60;
+
+    @Param({"20", "200"})
+    public int menuSize;
+
+    private SalesWindow window;
+    private String[] menu;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        window = new SalesWindow(WINDOW_MINUTES, 500);
+        menu = new String[menuSize];
+        for (int i = 0; i < menuSize; i++) {
+            menu[i] = "Product " + i;
+        }
+        now = System.currentTimeMillis();
+        long start = now - WINDOW_MINUTES * SalesWindow.BUCKET_MILLIS;
+        for (long t = start; t <= now; t += 1_000L) {
+            recordAt(t);
+        }
+    }
+
+    /**
+     * One created order with 1-4 lines, in the current minute.
+     */
+    @Benchmark
+    public boolean recordOrder() {
+        return recordAt(now);
+    }
+
+    /**
+     * The default endpoint query: last 15 minutes, top 10 products.
+     */
+    @Benchmark
+    public SalesWindow.Totals last15MinutesTop10() {
+        return window.totals(now, 15, 10);
+    }
+
+    @Benchmark
+    public SalesWindow.Totals fullWindowTop10() {
+        return window.totals(now, WINDOW_MINUTES, 10);
+    }
+
+    private boolean recordAt(long timeMillis) {
+        int lines = 1 + random.nextInt(4);
+        String[] products = new String[lines];
+        int[] quantities = new int[lines];
+        double[] prices = new double[lines];
+        for (int i = 0; i < lines; i++) {
+            products[i] = menu[random.nextInt(menuSize)];
+            quantities[i] = 1 + random.nextInt(3);
+            prices[i] = 5.0 + random.nextInt(20);
+        }
+        return window.record(timeMillis, products, quantities, prices);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.foodndeliv.benchmark;
+
+import com.example.foodndeliv.service.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of an admission decision on one restaurant's bucket when many request threads hit it at once
+ * (the viral restaurant case), where every decision is a compare-and-set on the same word.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenBucketBenchmark {
+
+    private TokenBucket bucket;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // High enough that the bucket admits most calls, so the CAS path is what gets measured
+        bucket = new TokenBucket(1_000_000_000.0, 1_000_000, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long acquireUncontended() {
+        return bucket.tryAcquire(System.nanoTime(), 0L);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long acquireContended() {
+        return bucket.tryAcquire(System.nanoTime(), 0L);
+    }
+}
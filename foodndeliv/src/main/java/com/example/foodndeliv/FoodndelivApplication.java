@@ -2,8 +2,10 @@ package com.example.foodndeliv;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Drives the Keycloak provisioning outbox worker
 public class FoodndelivApplication {
 
 	public static void main(String[] args) {
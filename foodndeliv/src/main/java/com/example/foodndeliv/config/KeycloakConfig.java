@@ -1,12 +1,17 @@
 package com.example.foodndeliv.config;
 
+import jakarta.ws.rs.client.ClientBuilder;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.keycloak.OAuth2Constants;
+import org.keycloak.admin.client.JacksonProvider;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class KeycloakConfig {
 
@@ -23,6 +28,16 @@ public class KeycloakConfig {
     @Value("${keycloak.client-secret}") // The secret for the admin client
     private String clientSecret;
 
+    // Pooled HTTP connections to Keycloak, shared by all provisioning workers
+    @Value("${keycloak.http.connection-pool-size:20}")
+    private int connectionPoolSize;
+
+    @Value("${keycloak.http.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${keycloak.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+
     // If you were to use direct admin user credentials (less common for service-to-service)
     // you would uncomment and use these:
     // @Value("${keycloak.username}")
@@ -30,14 +45,25 @@ public class KeycloakConfig {
     // @Value("${keycloak.password}")
     // private String password;
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public Keycloak keycloakAdminClient() {
+        // The default client keeps a single connection and never times out; a hung Keycloak would
+        // otherwise pin provisioning workers until their lease runs out
+        ResteasyClientBuilder httpClientBuilder = (ResteasyClientBuilder) ClientBuilder.newBuilder();
+        httpClientBuilder
+                .connectionPoolSize(connectionPoolSize)
+                .maxPooledPerRoute(connectionPoolSize)
+                .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS)
+                .register(JacksonProvider.class, 100); // Same JSON provider KeycloakBuilder registers by default
+
         return KeycloakBuilder.builder()
                 .serverUrl(serverUrl)
                 .realm(realm) // Realm for the admin client to authenticate (e.g., "master")
                 .grantType(OAuth2Constants.CLIENT_CREDENTIALS) // Recommended for service accounts/clients
                 .clientId(clientId)                             // e.g., "admin-cli"
                 .clientSecret(clientSecret)                     // Secret for the "admin-cli" or your service account client
+                .resteasyClient(httpClientBuilder.build())
                 // If using username/password for the admin client (not recommended for service-to-service):
                 // .grantType(OAuth2Constants.PASSWORD)
                 // .username(username) // e.g. Keycloak admin user
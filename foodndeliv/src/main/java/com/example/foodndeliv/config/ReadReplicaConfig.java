@@ -0,0 +1,94 @@
+package com.example.foodndeliv.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in foodndeliv.datasource.replica-urls.
+ * The primary pool is still configured through spring.datasource.*; each replica gets a read-only pool
+ * with the same Hikari settings. The application's DataSource becomes
+ * LazyConnectionDataSourceProxy -> ReplicaRoutingDataSource -> primary or replica pool.
+ * Without replica URLs this class is skipped and Spring Boot configures the single primary pool as usual.
+ */
+@Configuration
+@ConditionalOnExpression("!'${foodndeliv.datasource.replica-urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Value("${foodndeliv.datasource.replica-urls}")
+    private List<String> replicaUrls;
+
+    @Value("${foodndeliv.datasource.replica-username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${foodndeliv.datasource.replica-password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${foodndeliv.datasource.replica-max-lag-seconds:2}")
+    private double maxLagSeconds;
+
+    // Bounds how long a health check (or a read) waits on an unreachable replica
+    @Value("${foodndeliv.datasource.replica-connection-timeout-ms:2000}")
+    private long replicaConnectionTimeoutMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicaPools = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setPoolName(primaryDataSource.getPoolName() + "-replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true); // a misrouted write fails instead of diverging from the primary
+            replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1); // start even if a replica is down; health checks take it out
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicaPools.add(replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaPools, maxLagSeconds);
+        for (ReplicaRoutingDataSource.Replica replica : routing.replicas()) {
+            Gauge.builder("foodndeliv.datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replay lag of the read replica at its last health check (NaN if unreachable)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            Gauge.builder("foodndeliv.datasource.replica.usable", replica, r -> r.usable ? 1 : 0)
+                    .description("1 while the read replica receives read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+        return routing;
+    }
+
+    /**
+     * The DataSource used by JPA, JdbcTemplate and SQL init. The lazy proxy only fetches a real connection
+     * at the first statement, when the transaction's read-only flag is already set.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
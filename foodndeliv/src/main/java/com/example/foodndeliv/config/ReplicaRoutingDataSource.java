@@ -0,0 +1,133 @@
+package com.example.foodndeliv.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions (@Transactional(readOnly = true), including Spring Data's find methods)
+ * to the read replicas, round robin, and everything else to the primary.
+ * A replica is only used while its last health check succeeded, it was streaming from the primary and its
+ * replay lag was within maxLagSeconds; if none qualifies, reads go to the primary. Must sit behind a LazyConnectionDataSourceProxy so the
+ * connection is picked after the transaction's read-only flag is known (see ReadReplicaConfig).
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    // NULL while the replica is not streaming from the primary: having replayed everything it received says
+    // nothing once it receives nothing more. Otherwise 0 when it has replayed everything it received, else the
+    // age of the last replayed transaction. pg_stat_wal_receiver.status is only visible to pg_monitor members.
+    private static final String LAG_SQL = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    static final class Replica {
+        final String name;
+        final HikariDataSource pool;
+        volatile boolean usable;
+        volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, HikariDataSource pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, double maxLagSeconds) {
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool.getPoolName(), pool)).toList();
+        this.maxLagSeconds = maxLagSeconds;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.name, replica.pool));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    List<Replica> replicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.usable) {
+                return replica.name;
+            }
+        }
+        return PRIMARY; // every replica is down or lagging
+    }
+
+    /**
+     * Measures each replica's lag; replicas that fail the query, are not streaming or lag too much stop receiving
+     * reads until they recover.
+     */
+    @Scheduled(fixedDelayString = "${foodndeliv.datasource.replica-check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasUsable = replica.usable;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_SQL)) {
+                lag.next();
+                double lagSeconds = lag.getDouble(1);
+                if (lag.wasNull()) {
+                    replica.lagSeconds = Double.NaN;
+                    replica.usable = false;
+                    if (wasUsable) {
+                        logger.warn("Read replica {} is not streaming from the primary; reading from the primary instead",
+                                replica.name);
+                    }
+                    continue;
+                }
+                replica.lagSeconds = lagSeconds;
+                replica.usable = lagSeconds <= maxLagSeconds;
+                if (wasUsable && !replica.usable) {
+                    logger.warn("Read replica {} lags {} s (max {} s); reading from the primary instead",
+                            replica.name, replica.lagSeconds, maxLagSeconds);
+                }
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.usable = false;
+                if (wasUsable) {
+                    logger.warn("Read replica {} failed its health check ({}); reading from the primary instead",
+                            replica.name, e.getMessage());
+                }
+            }
+            if (!wasUsable && replica.usable) {
+                logger.info("Read replica {} is serving reads (lag {} s)", replica.name, replica.lagSeconds);
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.foodndeliv.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs db/schema-indexes.sql once Hibernate's schema update is done. db/schema-upgrade.sql runs before
+ * it (spring.sql.init) and so cannot create indexes on tables that a fresh database does not have yet.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class SchemaIndexInitializer {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void createIndexes() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema-indexes.sql")).execute(dataSource);
+    }
+}
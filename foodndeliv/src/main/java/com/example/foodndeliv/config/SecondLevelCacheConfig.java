@@ -0,0 +1,96 @@
+package com.example.foodndeliv.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Hibernate second-level cache for the reference entities (Restaurant, MenuItem, Customer) and for
+ * cacheable queries, held in size-bounded Ehcache heap caches behind JCache. The regions are created
+ * here rather than on demand (hibernate.javax.cache.missing_cache_strategy=fail), so every region has
+ * a configured bound. Entities are READ_WRITE: a committed update, delete or JPQL bulk update replaces
+ * or evicts the cached entry, and the time-to-live limits how long a change made outside the application
+ * (e.g. with psql) can go unnoticed. Hit/miss/put counts per region are exported by Hibernate statistics
+ * (hibernate.second.level.cache.*), sizes and evictions per cache by JCache statistics (cache.*).
+ * Switched off with spring.jpa.properties.hibernate.cache.use_second_level_cache=false.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String RESTAURANTS = "restaurants";
+    public static final String MENU_ITEMS = "menu-items";
+    public static final String CUSTOMERS = "customers";
+    // Hibernate's default names for the query cache regions
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final List<String> REGIONS = List.of(RESTAURANTS, MENU_ITEMS, CUSTOMERS, QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    @Value("${foodndeliv.l2-cache.restaurants.max-entries:10000}")
+    private long restaurantEntries;
+
+    @Value("${foodndeliv.l2-cache.menu-items.max-entries:100000}")
+    private long menuItemEntries;
+
+    @Value("${foodndeliv.l2-cache.customers.max-entries:100000}")
+    private long customerEntries;
+
+    @Value("${foodndeliv.l2-cache.query-results.max-entries:10000}")
+    private long queryResultEntries;
+
+    @Value("${foodndeliv.l2-cache.time-to-live:PT10M}")
+    private Duration timeToLive;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        createCache(cacheManager, RESTAURANTS, restaurantEntries, timeToLive);
+        createCache(cacheManager, MENU_ITEMS, menuItemEntries, timeToLive);
+        createCache(cacheManager, CUSTOMERS, customerEntries, timeToLive);
+        createCache(cacheManager, QUERY_RESULTS, queryResultEntries, timeToLive);
+        // One entry per table; must never be evicted or expire, or cached query results would be served stale
+        createCache(cacheManager, UPDATE_TIMESTAMPS, 1000, null);
+        return cacheManager;
+    }
+
+    /**
+     * Hands the cache manager above to Hibernate's JCache region factory.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : REGIONS) {
+                JCacheMetrics.monitor(registry, secondLevelCacheManager.getCache(region));
+            }
+        };
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, long maxEntries, Duration timeToLive) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                .withExpiry(timeToLive == null ? ExpiryPolicyBuilder.noExpiration() : ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive));
+        cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(builder.build()));
+        cacheManager.enableStatistics(name, true);
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.foodndeliv.controller;
 
 import com.example.foodndeliv.dto.CreateCustomerRequestDTO;
+import com.example.foodndeliv.dto.CursorPageDTO;
 import com.example.foodndeliv.dto.CustomerDTO;
+import com.example.foodndeliv.dto.ProvisioningStatusDTO;
 import com.example.foodndeliv.service.CustomerService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -13,7 +15,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -63,14 +64,29 @@ public class CustomerController {
     }
 
     /**
-     * Retrieves all customers.
-     * Endpoint: GET /api/customers
-     * @return ResponseEntity with status 200 (OK) and a list of customer DTOs.
+     * Retrieves the state of the customer's Keycloak user provisioning (latest create or delete task).
+     * Endpoint: GET /api/customers/{customerId}/provisioning
+     * @param customerId The ID of the customer.
+     * @return ResponseEntity with status 200 (OK) and the provisioning status.
+     */
+    @GetMapping("/{customerId}/provisioning")
+    public ResponseEntity<ProvisioningStatusDTO> getProvisioningStatus(@PathVariable Long customerId) {
+        logger.info("CustomerController: Received request to get provisioning status for customer ID: {}", customerId);
+        return ResponseEntity.ok(customerService.getProvisioningStatus(customerId));
+    }
+
+    /**
+     * Retrieves customers one keyset page at a time, ordered by ID.
+     * Endpoint: GET /api/customers?cursor={nextCursor}&limit={n}
+     * @param cursor Cursor returned with the previous page; omit for the first page.
+     * @param limit Requested page size; capped by the server maximum.
+     * @return ResponseEntity with status 200 (OK) and a page of customer DTOs.
      */
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        logger.info("CustomerController: Received request to get all customers");
-        List<CustomerDTO> customers = customerService.getAllCustomers();
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> getAllCustomers(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer limit) {
+        logger.info("CustomerController: Received request to get customers page (cursor: {}, limit: {})", cursor, limit);
+        CursorPageDTO<CustomerDTO> customers = customerService.getCustomersPage(cursor, limit);
         return ResponseEntity.ok(customers);
     }
 
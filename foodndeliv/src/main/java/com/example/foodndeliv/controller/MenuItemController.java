@@ -2,11 +2,15 @@ package com.example.foodndeliv.controller;
 
 import com.example.foodndeliv.dto.MenuItemRequestDTO;
 import com.example.foodndeliv.dto.MenuItemResponseDTO;
+import com.example.foodndeliv.dto.MenuSearchResultDTO;
 import com.example.foodndeliv.service.MenuItemService;
+import com.example.foodndeliv.service.MenuSearchService;
+import com.example.foodndeliv.service.RestaurantReadCache;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +27,12 @@ public class MenuItemController {
     @Autowired
     private MenuItemService menuItemService;
 
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
+
     // Add a menu item to a specific restaurant
     // POST /api/restaurants/{restaurantId}/menu-items
     @PostMapping("/restaurants/{restaurantId}/menu-items")
@@ -36,11 +46,22 @@ public class MenuItemController {
 
     // Get all menu items for a specific restaurant
     // GET /api/restaurants/{restaurantId}/menu-items
+    // Body: List<MenuItemResponseDTO>, served pre-serialized from RestaurantReadCache (ETag / 304)
     @GetMapping("/restaurants/{restaurantId}/menu-items")
-    public ResponseEntity<List<MenuItemResponseDTO>> getMenuItemsByRestaurant(@PathVariable Long restaurantId) {
-        logger.info("Fetching menu items for restaurant ID: {}", restaurantId);
-        List<MenuItemResponseDTO> menuItems = menuItemService.getMenuItemsByRestaurant(restaurantId);
-        return ResponseEntity.ok(menuItems);
+    public ResponseEntity<byte[]> getMenuItemsByRestaurant(@PathVariable Long restaurantId,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.debug("Fetching menu items for restaurant ID: {}", restaurantId);
+        return restaurantReadCache.menu(restaurantId, ifNoneMatch,
+                () -> menuItemService.getMenuItemsByRestaurant(restaurantId));
+    }
+
+    // Search available menu items of all restaurants by product name, typos tolerated (in-memory index)
+    // GET /api/menu-items/search?q=margherita&limit=20
+    @GetMapping("/menu-items/search")
+    public ResponseEntity<List<MenuSearchResultDTO>> searchMenuItems(@RequestParam String q,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("Searching menu items for '{}' (limit {})", q, limit);
+        return ResponseEntity.ok(menuSearchService.search(q, limit));
     }
 
     // Get a specific menu item by its ID
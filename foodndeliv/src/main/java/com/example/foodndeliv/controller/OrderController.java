@@ -3,11 +3,18 @@ package com.example.foodndeliv.controller;
 import com.example.foodndeliv.service.*;
 import com.example.foodndeliv.dto.*;
 
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/ctrl/orders")
@@ -16,17 +23,116 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    // Present only with foodndeliv.orders.group-commit.enabled=true
+    @Autowired(required = false)
+    private OrderGroupCommitter orderGroupCommitter;
+
+    @Autowired
+    private OrderAdmissionControl orderAdmissionControl;
+
+    /**
+     * Creates an order. Clients that retry should send an Idempotency-Key header: a repeated key
+     * returns the original order instead of creating another one (409 if the body differs).
+     * 429 with Retry-After when the restaurant is receiving more orders than its admission rate
+     * (never for a retry of a request that already completed).
+     */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public OrderResponseDTO createOrder(@RequestBody OrderRequestDTO orderRequestDTO) {
+    public OrderResponseDTO createOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                        @RequestBody OrderRequestDTO orderRequestDTO) {
         System.out.println("createOrder called");
+        if (idempotencyKey != null) {
+            // A retry of a completed request gets its response back even if the restaurant is now over its rate
+            Optional<OrderResponseDTO> completed = orderIdempotencyService.findCompleted(idempotencyKey, orderRequestDTO);
+            if (completed.isPresent()) {
+                return completed.get();
+            }
+            orderAdmissionControl.admit(orderRequestDTO.getRestaurantId());
+            return orderIdempotencyService.createOrder(idempotencyKey, orderRequestDTO);
+        }
+        orderAdmissionControl.admit(orderRequestDTO.getRestaurantId());
+        if (orderGroupCommitter != null) {
+            return orderGroupCommitter.createOrder(orderRequestDTO);
+        }
         return orderService.createOrder(orderRequestDTO);
     }
 
+    /**
+     * Creates many orders from a JSON array of order requests.
+     * Endpoint: POST /api/ctrl/orders/bulk
+     * Always 200 for a well-formed batch; each result says whether that order was created, and why not.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public BulkOrderResponseDTO createOrders(@RequestBody List<OrderRequestDTO> orderRequests) {
+        return bulkOrderService.createOrders(orderRequests);
+    }
+
+    /**
+     * Same as above for newline-delimited JSON (one order request per line), e.g. streamed from a file.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public BulkOrderResponseDTO createOrdersFromNdjson(InputStream body) throws IOException {
+        return bulkOrderService.createOrdersFromNdjson(body);
+    }
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<OrderResponseDTO> getAllOrders() {
+    public CursorPageDTO<OrderResponseDTO> getAllOrders(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
         System.out.println("getAllOrders called");
-        return orderService.getAllOrders();
+        return orderService.getOrdersPage(cursor, limit);
+    }
+
+    @GetMapping("/summaries")
+    @ResponseStatus(HttpStatus.OK)
+    public CursorPageDTO<OrderSummaryDTO> getOrderSummaries(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit) {
+        return orderService.getOrderSummariesPage(cursor, limit);
+    }
+
+    /**
+     * Moves an order to a new state (e.g. CONFIRMED -> ACCEPTED).
+     * Endpoint: POST /api/ctrl/orders/{orderId}/transitions
+     * Responds 409 Conflict if the transition is not allowed or expectedVersion is stale.
+     */
+    @PostMapping("/{orderId}/transitions")
+    @ResponseStatus(HttpStatus.OK)
+    public OrderTransitionResultDTO transitionOrder(@PathVariable Long orderId,
+                                                    @Valid @RequestBody OrderTransitionRequestDTO request) {
+        return orderTransitionService.transition(orderId, request);
+    }
+
+    /**
+     * Moves many orders to the same state in one call, e.g. a restaurant accepting its confirmed orders.
+     * Endpoint: POST /api/ctrl/orders/transitions
+     * Always 200; each result says whether that order's transition was applied.
+     */
+    @PostMapping("/transitions")
+    @ResponseStatus(HttpStatus.OK)
+    public List<OrderTransitionResultDTO> transitionOrders(@Valid @RequestBody BulkOrderTransitionRequestDTO request) {
+        return orderTransitionService.transitionAll(request);
+    }
+
+    /**
+     * Exports every order with its lines as newline-delimited JSON, written as rows are read.
+     * Endpoint: GET /api/ctrl/orders/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        StreamingResponseBody body = out -> orderService.exportOrders(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 }
@@ -1,12 +1,18 @@
 package com.example.foodndeliv.controller;
 
 import com.example.foodndeliv.dto.CreateRestaurantRequestDTO;
+import com.example.foodndeliv.dto.NearbyRiderDTO;
 import com.example.foodndeliv.dto.RestaurantDTO;
+import com.example.foodndeliv.dto.SalesSnapshotDTO;
+import com.example.foodndeliv.service.RestaurantReadCache;
 import com.example.foodndeliv.service.RestaurantService;
+import com.example.foodndeliv.service.RiderLocationService;
+import com.example.foodndeliv.service.SalesAnalyticsService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +31,15 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
     @PostMapping
     public ResponseEntity<RestaurantDTO> createRestaurant(@Valid @RequestBody CreateRestaurantRequestDTO requestDTO) {
         logger.info("RestaurantController: Received request to create restaurant: {}", requestDTO.getName());
@@ -37,18 +52,40 @@ public class RestaurantController {
         return ResponseEntity.created(location).body(createdRestaurant);
     }
 
+    // Body: CursorPageDTO<RestaurantDTO>, served pre-serialized from RestaurantReadCache (ETag / 304)
     @GetMapping
-    public ResponseEntity<List<RestaurantDTO>> getAllRestaurants() {
-        logger.info("Received request to fetch all restaurants");
-        List<RestaurantDTO> restaurants = restaurantService.getAllRestaurants();
-        return ResponseEntity.ok(restaurants);
+    public ResponseEntity<byte[]> getAllRestaurants(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer limit,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.debug("Received request to fetch restaurants page (cursor: {}, limit: {})", cursor, limit);
+        return restaurantReadCache.restaurantsPage(cursor, limit, ifNoneMatch,
+                () -> restaurantService.getRestaurantsPage(cursor, limit));
     }
 
+    // Body: RestaurantDTO, served pre-serialized from RestaurantReadCache (ETag / 304)
     @GetMapping("/{restaurantId}")
-    public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long restaurantId) {
-        logger.info("Received request to fetch restaurant with ID: {}", restaurantId);
-        RestaurantDTO restaurant = restaurantService.getRestaurantById(restaurantId);
-        return ResponseEntity.ok(restaurant);
+    public ResponseEntity<byte[]> getRestaurantById(@PathVariable Long restaurantId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        logger.debug("Received request to fetch restaurant with ID: {}", restaurantId);
+        return restaurantReadCache.restaurant(restaurantId, ifNoneMatch,
+                () -> restaurantService.getRestaurantById(restaurantId));
+    }
+
+    // Answered from the in-memory rider location index; only riders that are AVAILABLE and reported recently
+    @GetMapping("/{restaurantId}/nearest-riders")
+    public ResponseEntity<List<NearbyRiderDTO>> getNearestRiders(@PathVariable Long restaurantId,
+                                                                 @RequestParam(defaultValue = "5") int k) {
+        logger.debug("Received request for the {} nearest riders to restaurant ID: {}", k, restaurantId);
+        return ResponseEntity.ok(riderLocationService.findNearestAvailableRiders(restaurantId, k));
+    }
+
+    // Answered from the in-memory sales window (last foodndeliv.sales-analytics.window-minutes at most)
+    @GetMapping("/{restaurantId}/sales")
+    public ResponseEntity<SalesSnapshotDTO> getSales(@PathVariable Long restaurantId,
+                                                     @RequestParam(defaultValue = "15") int minutes,
+                                                     @RequestParam(defaultValue = "10") int top) {
+        logger.debug("Received request for the sales of the last {} minutes of restaurant ID: {}", minutes, restaurantId);
+        return ResponseEntity.ok(salesAnalyticsService.getSales(restaurantId, minutes, top));
     }
 
     // *** METHOD TO HANDLE DELETE REQUESTS ***
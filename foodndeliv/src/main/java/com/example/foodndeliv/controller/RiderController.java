@@ -1,8 +1,12 @@
 package com.example.foodndeliv.controller;
 
 import com.example.foodndeliv.dto.CreateRiderRequestDTO;
+import com.example.foodndeliv.dto.CursorPageDTO;
+import com.example.foodndeliv.dto.ProvisioningStatusDTO;
+import com.example.foodndeliv.dto.RiderLocationDTO;
 import com.example.foodndeliv.dto.RiderResponseDTO;
 import com.example.foodndeliv.dto.UpdateRiderRequestDTO;
+import com.example.foodndeliv.service.RiderLocationService;
 import com.example.foodndeliv.service.RiderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -10,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +40,9 @@ public class RiderController {
     @Autowired
     private RiderService riderService;
 
+    @Autowired
+    private RiderLocationService riderLocationService;
+
     /**
      * Creates a new rider.
      * @param requestDTO DTO containing data for the new rider.
@@ -48,7 +56,7 @@ public class RiderController {
         // HATEOAS links
         EntityModel<RiderResponseDTO> entityModel = EntityModel.of(createdRiderDTO,
                 linkTo(methodOn(RiderController.class).getRiderById(createdRiderDTO.getId())).withSelfRel(),
-                linkTo(methodOn(RiderController.class).getAllRiders()).withRel("riders"));
+                linkTo(methodOn(RiderController.class).getAllRiders(null, null)).withRel("riders"));
 
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
@@ -72,31 +80,83 @@ public class RiderController {
         // HATEOAS links
         EntityModel<RiderResponseDTO> entityModel = EntityModel.of(riderDTO,
                 linkTo(methodOn(RiderController.class).getRiderById(riderId)).withSelfRel(),
-                linkTo(methodOn(RiderController.class).getAllRiders()).withRel("riders"));
+                linkTo(methodOn(RiderController.class).getAllRiders(null, null)).withRel("riders"));
         // Add update and delete links conditionally or always
         entityModel.add(linkTo(methodOn(RiderController.class).updateRider(riderId, null)).withRel("update")); // null as placeholder
         entityModel.add(linkTo(methodOn(RiderController.class).deleteRider(riderId)).withRel("delete"));
+        entityModel.add(linkTo(methodOn(RiderController.class).getProvisioningStatus(riderId)).withRel("provisioning"));
+
+
+        return ResponseEntity.ok(entityModel);
+    }
+
+    /**
+     * Retrieves the state of the rider's Keycloak user provisioning (latest create or delete task).
+     * @param riderId The ID of the rider.
+     * @return ResponseEntity with the HATEOAS-enriched provisioning status.
+     */
+    @GetMapping("/{riderId}/provisioning")
+    public ResponseEntity<EntityModel<ProvisioningStatusDTO>> getProvisioningStatus(@PathVariable Long riderId) {
+        logger.info("RiderController: Received request to get provisioning status for rider ID: {}", riderId);
+        ProvisioningStatusDTO status = riderService.getProvisioningStatus(riderId);
 
+        EntityModel<ProvisioningStatusDTO> entityModel = EntityModel.of(status,
+                linkTo(methodOn(RiderController.class).getProvisioningStatus(riderId)).withSelfRel(),
+                linkTo(methodOn(RiderController.class).getRiderById(riderId)).withRel("rider"));
 
         return ResponseEntity.ok(entityModel);
     }
 
     /**
-     * Retrieves all riders.
+     * Records a GPS ping from the rider's device. The position is indexed in memory and persisted write-behind.
+     * @param riderId The ID of the rider.
+     * @param location Latitude, longitude and optionally the time the position was taken.
+     * @return ResponseEntity with status 202 (Accepted).
+     */
+    @PostMapping("/{riderId}/location")
+    public ResponseEntity<Void> recordLocation(@PathVariable Long riderId, @RequestBody RiderLocationDTO location) {
+        logger.debug("RiderController: Received location for rider ID: {}", riderId);
+        riderLocationService.recordLocation(riderId, location);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Records a batch of GPS pings, e.g. buffered by a device or forwarded by a gateway for many riders.
+     * @param locations Pings, each with its riderId; the batch is accepted or rejected as a whole.
+     * @return ResponseEntity with status 202 (Accepted).
+     */
+    @PostMapping("/locations")
+    public ResponseEntity<Void> recordLocations(@RequestBody List<RiderLocationDTO> locations) {
+        logger.debug("RiderController: Received {} rider location(s)", locations.size());
+        riderLocationService.recordLocations(locations);
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Retrieves riders one keyset page at a time, ordered by ID.
+     * The 'next' link carries the cursor for the following page and is absent on the last page.
+     * @param cursor Cursor from the previous page's 'next' link; omit for the first page.
+     * @param limit Requested page size; capped by the server maximum.
      * @return ResponseEntity with a collection of HATEOAS-enriched rider DTOs.
      */
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<RiderResponseDTO>>> getAllRiders() {
-        logger.info("RiderController: Received request to get all riders");
-        List<RiderResponseDTO> riderDTOs = riderService.getAllRiders();
+    public ResponseEntity<CollectionModel<EntityModel<RiderResponseDTO>>> getAllRiders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.info("RiderController: Received request to get riders page (cursor: {}, limit: {})", cursor, limit);
+        CursorPageDTO<RiderResponseDTO> page = riderService.getRidersPage(cursor, limit);
 
-        List<EntityModel<RiderResponseDTO>> ridersWithLinks = riderDTOs.stream()
+        List<EntityModel<RiderResponseDTO>> ridersWithLinks = page.getItems().stream()
                 .map(rider -> EntityModel.of(rider,
                         linkTo(methodOn(RiderController.class).getRiderById(rider.getId())).withSelfRel()))
                 .collect(Collectors.toList());
 
         CollectionModel<EntityModel<RiderResponseDTO>> collectionModel = CollectionModel.of(ridersWithLinks,
-                linkTo(methodOn(RiderController.class).getAllRiders()).withSelfRel());
+                linkTo(methodOn(RiderController.class).getAllRiders(cursor, limit)).withSelfRel());
+        if (page.getNextCursor() != null) {
+            collectionModel.add(linkTo(methodOn(RiderController.class).getAllRiders(page.getNextCursor(), limit))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
 
         return ResponseEntity.ok(collectionModel);
     }
@@ -116,7 +176,7 @@ public class RiderController {
 
         EntityModel<RiderResponseDTO> entityModel = EntityModel.of(updatedRiderDTO,
                 linkTo(methodOn(RiderController.class).getRiderById(updatedRiderDTO.getId())).withSelfRel(),
-                linkTo(methodOn(RiderController.class).getAllRiders()).withRel("riders"));
+                linkTo(methodOn(RiderController.class).getAllRiders(null, null)).withRel("riders"));
 
         return ResponseEntity.ok(entityModel);
     }
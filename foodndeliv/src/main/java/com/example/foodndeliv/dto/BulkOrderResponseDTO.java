@@ -0,0 +1,20 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response of a bulk order creation: totals plus one result per submitted order, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResponseDTO {
+    private int received;
+    private int created;
+    private int failed;
+    private List<BulkOrderResultDTO> results;
+}
@@ -0,0 +1,23 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one order in a bulk creation request, identified by its position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResultDTO {
+    private int index;
+    private boolean created;
+    private Long orderId;
+    private OrderState state;
+    private Double totalPrice;
+    private Long riderId;
+    private String error; // null when created
+    private Long retryAfterSeconds; // set when refused by admission control
+}
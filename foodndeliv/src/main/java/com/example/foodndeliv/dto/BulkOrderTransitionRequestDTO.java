@@ -0,0 +1,24 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Moves many orders to the same state, e.g. a restaurant accepting its pending orders.
+ * With restaurantId set, orders of other restaurants are reported as not found.
+ */
+@Data
+public class BulkOrderTransitionRequestDTO {
+
+    @NotEmpty(message = "At least one order ID is required")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Target state is required")
+    private OrderState targetState;
+
+    private Long restaurantId;
+}
@@ -1,6 +1,8 @@
 package com.example.foodndeliv.dto;
 
 import com.example.foodndeliv.types.RestaurantState; 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -20,6 +22,14 @@ public class CreateRestaurantRequestDTO {
     @Size(max = 500, message = "Address must be less than 500 characters")
     private String address; // Assuming address is a simple string
 
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
     @NotNull(message = "Restaurant state cannot be null")
     private RestaurantState state; // e.g., OPEN, CLOSED
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Quantity sold and revenue of one product within a sales snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSalesDTO {
+    private String productName;
+    private Long quantity;
+    private Double revenue;
+}
@@ -0,0 +1,19 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A menu item matching a product search; score (0..1] is the share of the query found in the product name.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSearchResultDTO {
+    private Long menuItemId;
+    private Long restaurantId;
+    private String productName;
+    private Double price;
+    private Double score;
+}
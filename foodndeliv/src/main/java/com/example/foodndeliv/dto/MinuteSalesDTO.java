@@ -0,0 +1,19 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Orders and revenue of one minute within a sales snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MinuteSalesDTO {
+    private Instant minuteStart;
+    private Long orders;
+    private Double revenue;
+}
@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An available rider near a point, with their latest known position.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyRiderDTO {
+    private Long riderId;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;
+    private Instant recordedAt;
+}
@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One line of the NDJSON order export: an order with its lines,
+ * referencing customer and restaurant by ID only.
+ */
+@Data
+public class OrderExportDTO {
+    private Long id;
+    private Long customerId;
+    private Long restaurantId;
+    private OrderState state;
+    private Double totalPrice;
+    private String orderDetails;
+    private List<OrderLineDTO> orderLines;
+}
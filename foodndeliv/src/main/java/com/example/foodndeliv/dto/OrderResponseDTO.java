@@ -13,6 +13,8 @@ public class OrderResponseDTO {
     private RestaurantDTO restaurant;
     private List<OrderLineDTO> orderLines;
     private OrderState state;
+    private Long version; // expected version for state transitions
     private Double totalPrice;
+    private Long riderId; // null until a rider is assigned
 }
 
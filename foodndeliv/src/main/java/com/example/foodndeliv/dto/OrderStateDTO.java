@@ -0,0 +1,20 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of what a state transition needs to know about an order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStateDTO {
+    private Long orderId;
+    private Long restaurantId;
+    private Long riderId;
+    private OrderState state;
+    private Long version;
+}
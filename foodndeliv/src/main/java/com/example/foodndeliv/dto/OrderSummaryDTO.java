@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat order row for list views.
+ * Built directly by a JPQL constructor expression, so field order matches the query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryDTO {
+    private Long id;
+    private Long customerId;
+    private Long restaurantId;
+    private OrderState state;
+    private Double totalPrice;
+}
@@ -0,0 +1,18 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Moves one order to a new state. With expectedVersion set, the transition only applies
+ * if nobody changed the order since the client read it.
+ */
+@Data
+public class OrderTransitionRequestDTO {
+
+    @NotNull(message = "Target state is required")
+    private OrderState targetState;
+
+    private Long expectedVersion;
+}
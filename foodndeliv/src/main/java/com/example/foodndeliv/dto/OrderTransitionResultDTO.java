@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.OrderState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one transition in a bulk request: the order's state and version afterwards,
+ * and why it was not applied if it wasn't.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionResultDTO {
+    private Long orderId;
+    private boolean applied;
+    private OrderState state;
+    private Long version;
+    private String message; // null when applied
+}
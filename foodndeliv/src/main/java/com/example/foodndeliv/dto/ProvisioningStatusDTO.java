@@ -0,0 +1,27 @@
+package com.example.foodndeliv.dto;
+
+import com.example.foodndeliv.types.ProvisioningOperation;
+import com.example.foodndeliv.types.ProvisioningStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO describing the latest Keycloak provisioning task of a customer or rider.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProvisioningStatusDTO {
+    private Long taskId;
+    private ProvisioningOperation operation;
+    private ProvisioningStatus status;
+    private int attempts;
+    private Instant nextAttemptAt;
+    private String lastError;
+    private String keycloakUserId;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
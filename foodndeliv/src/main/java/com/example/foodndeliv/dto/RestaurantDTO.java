@@ -8,5 +8,7 @@ public class RestaurantDTO {
     private Long id;
     private String name;
     private String address;
+    private Double latitude;
+    private Double longitude;
     private RestaurantState state;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A GPS ping from a rider's device. riderId is taken from the path for single pings
+ * and is required per entry in batches; recordedAt defaults to the time of receipt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiderLocationDTO {
+    private Long riderId;
+    private Double latitude;
+    private Double longitude;
+    private Instant recordedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Projection of a rider's (approximate) position.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiderPositionDTO {
+    private Long riderId;
+    private Double latitude;
+    private Double longitude;
+}
@@ -0,0 +1,25 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A restaurant's sales over the last minutes, from the in-memory sales window.
+ * The range is [from, to), whole minutes, and includes the current minute.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesSnapshotDTO {
+    private Long restaurantId;
+    private Instant from;
+    private Instant to;
+    private Long orders;
+    private Double revenue;
+    private List<ItemSalesDTO> topItems;
+    private List<MinuteSalesDTO> perMinute;
+}
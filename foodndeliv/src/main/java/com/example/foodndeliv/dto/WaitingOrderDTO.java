@@ -0,0 +1,21 @@
+package com.example.foodndeliv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Projection of an order waiting for a rider, with its pickup position (for batch dispatch).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitingOrderDTO {
+    private Long orderId;
+    private Long restaurantId;
+    private Double latitude;
+    private Double longitude;
+    private Instant createdAt;
+}
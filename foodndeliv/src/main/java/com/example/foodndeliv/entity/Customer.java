@@ -3,6 +3,8 @@ package com.example.foodndeliv.entity;
 import com.example.foodndeliv.types.CustomerState;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -13,12 +15,15 @@ import java.util.List;
 
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers") // second-level cache, see SecondLevelCacheConfig
 @Data
 @NoArgsConstructor
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -38,4 +43,8 @@ public class Customer {
     @Enumerated(EnumType.STRING)
     @Column(name = "state", nullable = false)
     private CustomerState state;
+
+    // Set once the Keycloak user has been provisioned; lets deletes address the user directly
+    @Column(name = "keycloak_user_id", length = 64)
+    private String keycloakUserId;
 }
\ No newline at end of file
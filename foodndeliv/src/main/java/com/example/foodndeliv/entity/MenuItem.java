@@ -2,6 +2,8 @@ package com.example.foodndeliv.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference; // Important for MenuItem -> Restaurant
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -12,13 +14,16 @@ import lombok.ToString;
 @Table(name = "menu_items", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"restaurant_id", "product_name"})
 })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "menu-items") // second-level cache, see SecondLevelCacheConfig
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MenuItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_seq")
+    @SequenceGenerator(name = "menu_items_seq", sequenceName = "menu_items_id_seq", allocationSize = 50)
     private Long id;
 
     // Relationship to Restaurant (Many-to-One) 
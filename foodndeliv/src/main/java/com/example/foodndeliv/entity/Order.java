@@ -8,7 +8,9 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,8 +20,10 @@ import java.util.List;
 @NoArgsConstructor
 public class Order {
 
+    // Pooled sequence (not IDENTITY) so Hibernate can batch the order and its lines
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -49,11 +53,29 @@ public class Order {
     @EqualsAndHashCode.Exclude
     private List<OrderLine> orderLines = new ArrayList<>();
 
+    // Set by DispatchService once the order is CONFIRMED/ACCEPTED and a rider has been claimed
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "rider_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Rider rider;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "state", nullable = false)
     private OrderState state;
 
-    // If totalPrice is to persist:
-    // @Column(name = "total_price")
-    // private Double totalPrice;
+    // Bumped by every state transition and rider (un)assignment, including the conditional updates
+    // in OrderRepository and OrderTransitionService, so a stale write fails instead of overwriting them
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    // Persisted at creation so listings never have to load order lines to compute it
+    @Column(name = "total_price")
+    private Double totalPrice;
+
+    // Null for orders created before the column existed
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
 }
\ No newline at end of file
@@ -14,7 +14,8 @@ import lombok.ToString;
 public class OrderLine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_lines_seq")
+    @SequenceGenerator(name = "order_lines_seq", sequenceName = "order_lines_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
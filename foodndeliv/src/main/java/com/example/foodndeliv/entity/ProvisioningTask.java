@@ -0,0 +1,80 @@
+package com.example.foodndeliv.entity;
+
+import com.example.foodndeliv.types.ProvisioningOperation;
+import com.example.foodndeliv.types.ProvisioningStatus;
+import com.example.foodndeliv.types.ProvisioningSubject;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Outbox row for a Keycloak user operation, written in the same transaction as the
+ * customer/rider change and carried out later by the ProvisioningWorker.
+ * Holds everything the operation needs, so it can still run after the subject row is gone.
+ */
+@Entity
+@Table(name = "provisioning_tasks", indexes = {
+    @Index(name = "idx_provisioning_tasks_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_provisioning_tasks_subject", columnList = "subject_type, subject_id")
+})
+@Data
+@NoArgsConstructor
+public class ProvisioningTask {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "provisioning_tasks_seq")
+    @SequenceGenerator(name = "provisioning_tasks_seq", sequenceName = "provisioning_tasks_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "subject_type", nullable = false, length = 20)
+    private ProvisioningSubject subjectType;
+
+    @Column(name = "subject_id", nullable = false)
+    private Long subjectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 20)
+    private ProvisioningOperation operation;
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "email")
+    private String email;
+
+    @Column(name = "first_name")
+    private String firstName;
+
+    @Column(name = "last_name")
+    private String lastName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ProvisioningStatus status;
+
+    // Incremented on every claim; also fences out a worker whose lease has expired
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    // A claimed task whose lease has passed is considered abandoned and is claimed again
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "keycloak_user_id", length = 64)
+    private String keycloakUserId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
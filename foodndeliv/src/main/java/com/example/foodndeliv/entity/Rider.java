@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * Represents a Rider in the system.
  */
@@ -17,7 +19,8 @@ import lombok.AllArgsConstructor;
 public class Rider {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "riders_seq")
+    @SequenceGenerator(name = "riders_seq", sequenceName = "riders_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -33,6 +36,20 @@ public class Rider {
     @Column(name = "status", nullable = false)
     private RiderStatus status;
 
+    // Set once the Keycloak user has been provisioned; lets deletes address the user directly
+    @Column(name = "keycloak_user_id", length = 64)
+    private String keycloakUserId;
+
+    // Latest reported GPS position. Written only by RiderLocationWriter (batched JDBC, write-behind),
+    // never by JPA, so a rider update cannot overwrite a fresher position with the one it loaded.
+    @Column(name = "latitude", insertable = false, updatable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", insertable = false, updatable = false)
+    private Double longitude;
+
+    @Column(name = "location_updated_at", insertable = false, updatable = false)
+    private Instant locationUpdatedAt;
 
     // Constructor for creating a new Rider (ID is auto-generated)
     public Rider(String name, String phoneNumber, String vehicleDetails, RiderStatus status) {
@@ -0,0 +1,12 @@
+package com.example.foodndeliv.exception;
+
+/**
+ * Thrown when a request conflicts with the current state of a resource, e.g. a disallowed or concurrently
+ * lost order state transition, or a reused Idempotency-Key; mapped to 409.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
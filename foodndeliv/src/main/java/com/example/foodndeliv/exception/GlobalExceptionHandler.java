@@ -2,6 +2,7 @@ package com.example.foodndeliv.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -82,6 +83,37 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(responseBody, statusToReturn);
     }
 
+    // Business rule conflicts, e.g. a disallowed or concurrently lost order state transition
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    public Map<String, Object> handleConflictException(ConflictException ex, WebRequest request) {
+        logger.warn("Conflict caught by GlobalExceptionHandler: {} for request: {}", ex.getMessage(), request.getDescription(false));
+        Map<String, Object> responseBody = new LinkedHashMap<>();
+        responseBody.put("timestamp", System.currentTimeMillis());
+        responseBody.put("status", HttpStatus.CONFLICT.value());
+        responseBody.put("error", "Conflict");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", request.getDescription(false).replace("uri=", ""));
+        return responseBody;
+    }
+
+    // Admission control: tell the client when to come back instead of letting it queue on our threads
+    @ExceptionHandler(TooManyRequestsException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> handleTooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        logger.debug("TooManyRequestsException caught by GlobalExceptionHandler: {} for request: {}", ex.getMessage(), request.getDescription(false));
+        Map<String, Object> responseBody = new LinkedHashMap<>();
+        responseBody.put("timestamp", System.currentTimeMillis());
+        responseBody.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        responseBody.put("error", "Too Many Requests");
+        responseBody.put("message", ex.getMessage());
+        responseBody.put("path", request.getDescription(false).replace("uri=", ""));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(responseBody);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ResponseBody
@@ -0,0 +1,21 @@
+package com.example.foodndeliv.mapper;
+
+import com.example.foodndeliv.dto.CreateCustomerRequestDTO;
+import com.example.foodndeliv.dto.CustomerDTO;
+import com.example.foodndeliv.entity.Customer;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Generated mapper between Customer entities and DTOs.
+ */
+@Mapper(config = MapStructConfig.class)
+public interface CustomerMapper {
+
+    CustomerDTO toDto(Customer customer);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "keycloakUserId", ignore = true)
+    Customer toEntity(CreateCustomerRequestDTO requestDTO);
+}
@@ -0,0 +1,18 @@
+package com.example.foodndeliv.mapper;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings for the compile-time generated entity/DTO mappers.
+ * Implementations are plain getter/setter code generated by MapStruct and registered as Spring beans,
+ * replacing the reflective ModelMapper on request paths.
+ */
+@MapperConfig(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface MapStructConfig {
+}
@@ -0,0 +1,17 @@
+package com.example.foodndeliv.mapper;
+
+import com.example.foodndeliv.dto.MenuItemResponseDTO;
+import com.example.foodndeliv.entity.MenuItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Generated mapper from MenuItem entities to response DTOs.
+ * restaurantId is read from the restaurant proxy's identifier, which does not initialize it.
+ */
+@Mapper(config = MapStructConfig.class)
+public interface MenuItemMapper {
+
+    @Mapping(target = "restaurantId", source = "restaurant.id")
+    MenuItemResponseDTO toDto(MenuItem menuItem);
+}
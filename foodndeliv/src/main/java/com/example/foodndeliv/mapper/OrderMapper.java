@@ -0,0 +1,23 @@
+package com.example.foodndeliv.mapper;
+
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.OrderLine;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Generated mapper from Order graphs (customer, restaurant, lines) to response DTOs.
+ * Only the associations present on OrderResponseDTO are touched, so callers control
+ * what gets loaded through their repository fetch plans.
+ */
+@Mapper(config = MapStructConfig.class, uses = {CustomerMapper.class, RestaurantMapper.class})
+public interface OrderMapper {
+
+    // Reads only the rider's ID, which does not initialize a lazy rider proxy
+    @Mapping(target = "riderId", source = "rider.id")
+    OrderResponseDTO toResponse(Order order);
+
+    OrderLineDTO toLineDto(OrderLine orderLine);
+}
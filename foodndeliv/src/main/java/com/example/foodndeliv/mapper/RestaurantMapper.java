@@ -0,0 +1,21 @@
+package com.example.foodndeliv.mapper;
+
+import com.example.foodndeliv.dto.CreateRestaurantRequestDTO;
+import com.example.foodndeliv.dto.RestaurantDTO;
+import com.example.foodndeliv.entity.Restaurant;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Generated mapper between Restaurant entities and DTOs.
+ */
+@Mapper(config = MapStructConfig.class)
+public interface RestaurantMapper {
+
+    RestaurantDTO toDto(Restaurant restaurant);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "menuItems", ignore = true)
+    Restaurant toEntity(CreateRestaurantRequestDTO requestDTO);
+}
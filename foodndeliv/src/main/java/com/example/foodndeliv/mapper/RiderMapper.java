@@ -0,0 +1,21 @@
+package com.example.foodndeliv.mapper;
+
+import com.example.foodndeliv.dto.CreateRiderRequestDTO;
+import com.example.foodndeliv.dto.RiderResponseDTO;
+import com.example.foodndeliv.entity.Rider;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Generated mapper between Rider entities and DTOs.
+ * HATEOAS links on RiderResponseDTO are added by the controller, not mapped.
+ */
+@Mapper(config = MapStructConfig.class)
+public interface RiderMapper {
+
+    RiderResponseDTO toDto(Rider rider);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "keycloakUserId", ignore = true)
+    Rider toEntity(CreateRiderRequestDTO requestDTO);
+}
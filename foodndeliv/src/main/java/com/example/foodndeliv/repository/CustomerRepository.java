@@ -1,8 +1,16 @@
 package com.example.foodndeliv.repository;
 
 import com.example.foodndeliv.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,5 +37,24 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      */
     Optional<Customer> findByName(String name); //  Customer entity has unique=true on name
 
-    
-}
\ No newline at end of file
+    /**
+     * Keyset page: Customer rows with an ID greater than the cursor, in ID order.
+     */
+    @RestResource(exported = false)
+    List<Customer> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Records the ID of the provisioned Keycloak user. No-op if the customer was deleted meanwhile.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query("UPDATE Customer c SET c.keycloakUserId = :keycloakUserId WHERE c.id = :id")
+    int setKeycloakUserId(@Param("id") Long id, @Param("keycloakUserId") String keycloakUserId);
+
+    /**
+     * Which of the given customer IDs exist (bulk order validation, one query for the whole batch).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,50 @@
+package com.example.foodndeliv.repository;
+
+import com.example.foodndeliv.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.Instant;
+
+/**
+ * Spring Data JPA repository for order creation idempotency keys. Internal only.
+ */
+@RepositoryRestResource(exported = false)
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Claims a key for the current transaction. If another transaction holds an uncommitted claim
+     * for the same key, PostgreSQL blocks this insert until that transaction ends, so a concurrent
+     * duplicate (from any instance) waits for the first request instead of racing it.
+     * @return 1 if claimed, 0 if the key was already recorded by a committed request.
+     */
+    @Modifying
+    // Only idempotency_keys is written; without this Hibernate would clear the whole second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+                   "VALUES (:key, :requestHash, :now) ON CONFLICT (idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash, @Param("now") Instant now);
+
+    /**
+     * Stores the outcome of the request that claimed the key.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.orderId = :orderId, k.response = :response WHERE k.key = :key")
+    int complete(@Param("key") String key, @Param("orderId") Long orderId, @Param("response") String response);
+
+    /**
+     * Forgets keys older than the retention period.
+     * @return The number of keys removed.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
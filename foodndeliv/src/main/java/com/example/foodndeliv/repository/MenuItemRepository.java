@@ -2,8 +2,14 @@ package com.example.foodndeliv.repository;
 
 import com.example.foodndeliv.entity.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,9 +19,17 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
     /**
      * Finds all menu items associated with a specific restaurant ID,
      * regardless of their availability.
+     * The result is kept in the query cache until menu_items is written (MenuCatalog reloads, menu reads).
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<MenuItem> findByRestaurantId(Long restaurantId);
 
+    /**
+     * Finds all menu items of several restaurants in one query (MenuCatalog bulk loading).
+     */
+    @RestResource(exported = false)
+    List<MenuItem> findByRestaurantIdIn(Collection<Long> restaurantIds);
+
     /**
      * Finds a menu item by its restaurant ID and product name, ignoring case.
      * Useful for checking existence or retrieving for updates, regardless of availability.
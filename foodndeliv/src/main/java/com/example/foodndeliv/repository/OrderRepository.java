@@ -1,31 +1,143 @@
 package com.example.foodndeliv.repository;
 
+import com.example.foodndeliv.dto.OrderStateDTO;
+import com.example.foodndeliv.dto.OrderSummaryDTO;
+import com.example.foodndeliv.dto.RiderPositionDTO;
+import com.example.foodndeliv.dto.WaitingOrderDTO;
 import com.example.foodndeliv.entity.*;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Repository for Order entities.
+ * Read paths that return orders for mapping fetch customer and restaurant in the same select
+ * (entity graph); order lines are then initialized in batches (hibernate.default_batch_fetch_size),
+ * so a read costs a bounded number of queries instead of one per association per order.
+ */
 @RepositoryRestResource(path = "orders")
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
     List<Order> findByOrderDetailsContaining(String orderDetails);
 
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
     @Query("SELECT o FROM Order o WHERE o.restaurant.name = :restaurantName")
     List<Order> findOrdersByRestaurantName(@Param("restaurantName") String restaurantName);
     
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
     @Query("SELECT o FROM Order o WHERE o.customer.id = :custID")
     List<Order> findOrdersByCustID(@Param("custID") Long custID);
 
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
     @Query("SELECT o FROM Order o WHERE o.customer.id = :custID and o.restaurant.id = :restID")
     List<Order> findOrdersByCustRestID(@Param("custID") Long custID, @Param("restID") Long restID);
 
 
-}
+    /**
+     * Keyset page: Order rows with an ID greater than the cursor, in ID order,
+     * with customer and restaurant fetched in the same select.
+     */
+    @RestResource(exported = false)
+    @EntityGraph(attributePaths = {"customer", "restaurant"})
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Keyset page of the summary projection for list views; reads only the orders table (no joins, no order lines).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT new com.example.foodndeliv.dto.OrderSummaryDTO(o.id, o.customer.id, o.restaurant.id, o.state, o.totalPrice) " +
+           "FROM Order o WHERE o.id > :afterId ORDER BY o.id")
+    List<OrderSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Streams every order in ID order through a server-side cursor (JDBC fetch size) instead of materializing the table.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @RestResource(exported = false)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAllOrderedById();
 
+    /**
+     * Loads the lines of a set of orders in one query.
+     */
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT l FROM OrderLine l WHERE l.order.id IN :orderIds ORDER BY l.order.id, l.id")
+    List<OrderLine> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 
+    /**
+     * IDs of CONFIRMED/ACCEPTED orders still waiting for a rider, oldest first.
+     */
+    @RestResource(exported = false)
+    @Query("SELECT o.id FROM Order o WHERE o.rider IS NULL AND o.state IN (" +
+           "com.example.foodndeliv.types.OrderState.CONFIRMED, com.example.foodndeliv.types.OrderState.ACCEPTED) ORDER BY o.id")
+    List<Long> findIdsWaitingForRider(Pageable pageable);
 
+    /**
+     * Orders waiting for a rider with their restaurant's position, oldest first (batch dispatch input).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT new com.example.foodndeliv.dto.WaitingOrderDTO(o.id, r.id, r.latitude, r.longitude, o.createdAt) " +
+           "FROM Order o JOIN o.restaurant r WHERE o.rider IS NULL AND o.state IN (" +
+           "com.example.foodndeliv.types.OrderState.CONFIRMED, com.example.foodndeliv.types.OrderState.ACCEPTED) ORDER BY o.id")
+    List<WaitingOrderDTO> findWaitingForRider(Pageable pageable);
 
+    /**
+     * Position of the restaurant each rider last picked up from, for riders with at least one order.
+     */
+    @RestResource(exported = false)
+    @Query("SELECT new com.example.foodndeliv.dto.RiderPositionDTO(o.rider.id, r.latitude, r.longitude) " +
+           "FROM Order o JOIN o.restaurant r WHERE o.rider.id IN :riderIds " +
+           "AND o.id = (SELECT MAX(o2.id) FROM Order o2 WHERE o2.rider.id = o.rider.id)")
+    List<RiderPositionDTO> findLastPickupPositions(@Param("riderIds") Collection<Long> riderIds);
+
+    /**
+     * Records a rider assignment, but only if the order is still dispatchable and unassigned,
+     * so concurrent dispatchers can never assign the same order twice.
+     * @return 1 if the rider was assigned, 0 otherwise.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders")) // keeps the second-level cache
+    @Query(value = "UPDATE orders SET rider_id = :riderId, version = version + 1 " +
+                   "WHERE id = :orderId AND rider_id IS NULL AND state IN ('CONFIRMED', 'ACCEPTED')",
+           nativeQuery = true)
+    int assignRiderIfWaiting(@Param("orderId") Long orderId, @Param("riderId") Long riderId);
+
+    /**
+     * Detaches a rider from all of its orders (before the rider is deleted).
+     * @return The number of orders that lost their rider.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "orders"))
+    @Query(value = "UPDATE orders SET rider_id = NULL, version = version + 1 WHERE rider_id = :riderId", nativeQuery = true)
+    int unassignRider(@Param("riderId") Long riderId);
+
+    /**
+     * Current state, version and rider of the given orders, without loading the entities.
+     */
+    @RestResource(exported = false)
+    @Query("SELECT new com.example.foodndeliv.dto.OrderStateDTO(o.id, o.restaurant.id, r.id, o.state, o.version) " +
+           "FROM Order o LEFT JOIN o.rider r WHERE o.id IN :orderIds")
+    List<OrderStateDTO> findStates(@Param("orderIds") Collection<Long> orderIds);
+}
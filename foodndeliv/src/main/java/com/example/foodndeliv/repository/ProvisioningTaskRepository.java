@@ -0,0 +1,66 @@
+package com.example.foodndeliv.repository;
+
+import com.example.foodndeliv.entity.ProvisioningTask;
+import com.example.foodndeliv.types.ProvisioningStatus;
+import com.example.foodndeliv.types.ProvisioningSubject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the Keycloak provisioning outbox.
+ * Internal only: provisioning status is exposed through the customer and rider controllers.
+ */
+@RepositoryRestResource(exported = false)
+public interface ProvisioningTaskRepository extends JpaRepository<ProvisioningTask, Long> {
+
+    /**
+     * Locks up to {@code limit} tasks that are due (pending and past their next attempt time,
+     * or claimed by a worker whose lease has expired), oldest first.
+     * A task waits while an earlier task for the same subject is unfinished, so a subject's tasks run
+     * one at a time and in order: a deletion never overtakes the creation it is meant to undo.
+     * SKIP LOCKED lets several application instances poll the same table without blocking each other.
+     */
+    @Query(value = "SELECT * FROM provisioning_tasks t " +
+                   "WHERE ((t.status = 'PENDING' AND t.next_attempt_at <= :now) " +
+                   "    OR (t.status = 'IN_PROGRESS' AND t.lease_until < :now)) " +
+                   "  AND NOT EXISTS (SELECT 1 FROM provisioning_tasks earlier " +
+                   "                  WHERE earlier.subject_type = t.subject_type AND earlier.subject_id = t.subject_id " +
+                   "                    AND earlier.id < t.id AND earlier.status IN ('PENDING', 'IN_PROGRESS')) " +
+                   "ORDER BY t.id LIMIT :limit FOR UPDATE OF t SKIP LOCKED",
+           nativeQuery = true)
+    List<ProvisioningTask> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Latest task for a customer or rider, used for the provisioning status endpoints.
+     */
+    Optional<ProvisioningTask> findFirstBySubjectTypeAndSubjectIdOrderByIdDesc(ProvisioningSubject subjectType, Long subjectId);
+
+    /**
+     * Records the outcome of an attempt. Only applies if the task is still held by the same attempt,
+     * so a worker whose lease expired cannot overwrite the result of the one that took over.
+     */
+    @Modifying
+    @Query("UPDATE ProvisioningTask t SET t.status = :status, t.nextAttemptAt = :nextAttemptAt, t.leaseUntil = null, " +
+           "t.lastError = :lastError, t.keycloakUserId = COALESCE(:keycloakUserId, t.keycloakUserId), t.updatedAt = :now " +
+           "WHERE t.id = :id AND t.attempts = :attempt AND t.status = com.example.foodndeliv.types.ProvisioningStatus.IN_PROGRESS")
+    int complete(@Param("id") Long id, @Param("attempt") int attempt, @Param("status") ProvisioningStatus status,
+                 @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError,
+                 @Param("keycloakUserId") String keycloakUserId, @Param("now") Instant now);
+
+    /**
+     * Cancels a subject's tasks that have not started yet, e.g. a user creation superseded by a delete.
+     */
+    @Modifying
+    @Query("UPDATE ProvisioningTask t SET t.status = com.example.foodndeliv.types.ProvisioningStatus.CANCELLED, t.updatedAt = :now " +
+           "WHERE t.subjectType = :subjectType AND t.subjectId = :subjectId " +
+           "AND t.status = com.example.foodndeliv.types.ProvisioningStatus.PENDING")
+    int cancelPending(@Param("subjectType") ProvisioningSubject subjectType, @Param("subjectId") Long subjectId,
+                      @Param("now") Instant now);
+}
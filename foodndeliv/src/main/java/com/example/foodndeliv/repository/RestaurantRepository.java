@@ -2,10 +2,20 @@ package com.example.foodndeliv.repository;
 
 import com.example.foodndeliv.entity.*;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
+
+import java.util.List;
 
 @RepositoryRestResource(path = "restaurants")
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
+
+    /**
+     * Keyset page: Restaurant rows with an ID greater than the cursor, in ID order.
+     */
+    @RestResource(exported = false)
+    List<Restaurant> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
 }
 
@@ -1,9 +1,17 @@
 package com.example.foodndeliv.repository;
 
+import com.example.foodndeliv.dto.RiderLocationDTO;
 import com.example.foodndeliv.entity.Rider;
+import com.example.foodndeliv.types.RiderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -19,4 +27,54 @@ public interface RiderRepository extends JpaRepository<Rider, Long> {
      * @return An Optional containing the rider if found, or empty otherwise.
      */
     Optional<Rider> findByPhoneNumber(String phoneNumber);
+
+    /**
+     * Keyset page: Rider rows with an ID greater than the cursor, in ID order.
+     */
+    @RestResource(exported = false)
+    List<Rider> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Records the ID of the provisioned Keycloak user. No-op if the rider was deleted meanwhile.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query("UPDATE Rider r SET r.keycloakUserId = :keycloakUserId WHERE r.id = :id")
+    int setKeycloakUserId(@Param("id") Long id, @Param("keycloakUserId") String keycloakUserId);
+
+    /**
+     * IDs of all riders in the given status (used to build the in-memory availability index).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT r.id FROM Rider r WHERE r.status = :status ORDER BY r.id")
+    List<Long> findIdsByStatus(@Param("status") RiderStatus status);
+
+    /**
+     * Moves a rider from AVAILABLE to ON_DELIVERY. The status check makes the claim atomic
+     * in the database, so a rider can never be assigned twice, even across application instances.
+     * @return 1 if the rider was claimed, 0 if it was no longer available.
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query("UPDATE Rider r SET r.status = com.example.foodndeliv.types.RiderStatus.ON_DELIVERY " +
+           "WHERE r.id = :id AND r.status = com.example.foodndeliv.types.RiderStatus.AVAILABLE")
+    int claimIfAvailable(@Param("id") Long id);
+
+    /**
+     * Last persisted position of every rider that has reported one (used to warm the location index on startup).
+     */
+    @RestResource(exported = false)
+    @Query("SELECT new com.example.foodndeliv.dto.RiderLocationDTO(r.id, r.latitude, r.longitude, r.locationUpdatedAt) " +
+           "FROM Rider r WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    List<RiderLocationDTO> findLastLocations();
+
+    /**
+     * Moves a rider from ON_DELIVERY back to AVAILABLE when their order is finished.
+     * @return 1 if the rider was released, 0 if it was not on a delivery (e.g. set offline meanwhile).
+     */
+    @Modifying
+    @RestResource(exported = false)
+    @Query("UPDATE Rider r SET r.status = com.example.foodndeliv.types.RiderStatus.AVAILABLE " +
+           "WHERE r.id = :id AND r.status = com.example.foodndeliv.types.RiderStatus.ON_DELIVERY")
+    int releaseIfOnDelivery(@Param("id") Long id);
 }
@@ -0,0 +1,109 @@
+package com.example.foodndeliv.service;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost rectangular assignment (Hungarian algorithm with potentials, O(n^2 * m)).
+ * Stateless; one instance per thread is not required.
+ */
+public final class AssignmentSolver {
+
+    private AssignmentSolver() {
+    }
+
+    /**
+     * Assigns rows to distinct columns so that the total cost is minimal.
+     * With more rows than columns, only as many rows as there are columns are assigned.
+     * @param cost cost[row][column]; all rows must have the same length.
+     * @return For each row, the assigned column, or -1 if the row is left unassigned.
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0 || cost[0].length == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        int columns = cost[0].length;
+        if (rows <= columns) {
+            return solveWide(cost, rows, columns);
+        }
+
+        // Solve the transposed problem (columns as rows) and invert the result
+        double[][] transposed = new double[columns][rows];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                transposed[c][r] = cost[r][c];
+            }
+        }
+        int[] rowOfColumn = solveWide(transposed, columns, rows);
+        int[] columnOfRow = new int[rows];
+        Arrays.fill(columnOfRow, -1);
+        for (int c = 0; c < columns; c++) {
+            columnOfRow[rowOfColumn[c]] = c;
+        }
+        return columnOfRow;
+    }
+
+    // Requires n <= m. Arrays are 1-based; index 0 is the virtual starting column.
+    private static int[] solveWide(double[][] cost, int n, int m) {
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] rowOfColumn = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minSlack = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            rowOfColumn[0] = i;
+            int j0 = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = rowOfColumn[j0];
+                double[] costRow = cost[i0 - 1];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double slack = costRow[j - 1] - u[i0] - v[j];
+                        if (slack < minSlack[j]) {
+                            minSlack[j] = slack;
+                            way[j] = j0;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOfColumn[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (rowOfColumn[j0] != 0);
+
+            // Augment along the alternating path back to the virtual column
+            do {
+                int j1 = way[j0];
+                rowOfColumn[j0] = rowOfColumn[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] columnOfRow = new int[n];
+        Arrays.fill(columnOfRow, -1);
+        for (int j = 1; j <= m; j++) {
+            if (rowOfColumn[j] != 0) {
+                columnOfRow[rowOfColumn[j] - 1] = j - 1;
+            }
+        }
+        return columnOfRow;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.WaitingOrderDTO;
+import com.example.foodndeliv.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BATCH dispatch mode: every window, collects the waiting orders and the available riders,
+ * computes the minimum-cost matching with BatchMatcher and applies it through DispatchService.
+ * Matches that lost a race in the meantime (rider taken, order changed) are skipped and their
+ * order simply waits for the next window.
+ */
+@Component
+@ConditionalOnProperty(name = "foodndeliv.dispatch.mode", havingValue = "BATCH")
+public class BatchDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RiderAvailabilityIndex riderAvailabilityIndex;
+
+    @Autowired
+    private RiderPositionSource riderPositionSource;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Value("${foodndeliv.dispatch.batch.max-orders:10000}")
+    private int maxOrders;
+
+    private final ForkJoinPool solverPool;
+    private final BatchMatcher batchMatcher;
+
+    public BatchDispatcher(@Value("${foodndeliv.dispatch.batch.parallelism:0}") int parallelism,
+                           @Value("${foodndeliv.dispatch.batch.cell-degrees:0.05}") double cellDegrees,
+                           @Value("${foodndeliv.dispatch.batch.spillover-limit:500}") int spilloverLimit,
+                           @Value("${foodndeliv.dispatch.batch.average-speed-kmh:20}") double averageSpeedKmh,
+                           @Value("${foodndeliv.dispatch.batch.unknown-travel-minutes:15}") double unknownTravelMinutes,
+                           @Value("${foodndeliv.dispatch.batch.wait-weight:0.5}") double waitWeight) {
+        this.solverPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.batchMatcher = new BatchMatcher(new DispatchCostModel(averageSpeedKmh, unknownTravelMinutes, waitWeight),
+                cellDegrees, spilloverLimit, solverPool);
+    }
+
+    @Scheduled(fixedDelayString = "${foodndeliv.dispatch.batch.window-ms:2000}")
+    public void dispatchWindow() {
+        try {
+            List<Long> riderIds = riderAvailabilityIndex.snapshot();
+            if (riderIds.isEmpty()) {
+                return;
+            }
+            List<WaitingOrderDTO> waiting = orderRepository.findWaitingForRider(PageRequest.of(0, maxOrders));
+            if (waiting.isEmpty()) {
+                return;
+            }
+
+            long started = System.nanoTime();
+            Instant now = Instant.now();
+            Map<Long, GeoPoint> positions = riderPositionSource.positionsOf(riderIds);
+            List<BatchMatcher.OrderCandidate> orders = waiting.stream()
+                    .map(order -> new BatchMatcher.OrderCandidate(order.getOrderId(),
+                            GeoPoint.ofNullable(order.getLatitude(), order.getLongitude()), order.getCreatedAt()))
+                    .toList();
+            List<BatchMatcher.RiderCandidate> riders = riderIds.stream()
+                    .map(riderId -> new BatchMatcher.RiderCandidate(riderId, positions.get(riderId)))
+                    .toList();
+
+            List<BatchMatcher.Match> matches = batchMatcher.match(orders, riders, now);
+            long solvedNanos = System.nanoTime() - started;
+
+            int assigned = 0;
+            for (BatchMatcher.Match match : matches) {
+                if (dispatchService.assignMatch(match.orderId(), match.riderId())) {
+                    assigned++;
+                }
+            }
+            logger.info("Batch dispatch: {} waiting order(s), {} available rider(s), {} matched in {} ms, {} assigned",
+                    orders.size(), riders.size(), matches.size(), solvedNanos / 1_000_000, assigned);
+        } catch (Exception e) {
+            logger.error("Batch dispatch window failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        solverPool.shutdown();
+    }
+}
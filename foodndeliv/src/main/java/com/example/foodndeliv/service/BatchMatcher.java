@@ -0,0 +1,134 @@
+package com.example.foodndeliv.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Optimal order-to-rider matching for one dispatch window.
+ * Orders and riders are partitioned into square grid cells (by pickup and rider position), each cell
+ * is solved independently with AssignmentSolver, and cells are solved in parallel.
+ * Partitioning keeps each solve small (the solver is cubic). Orders and riders left unmatched by
+ * their cell (empty neighbours, cell borders, unknown positions) then go through one more solve,
+ * capped at a configurable size; anything still unmatched waits for the next window.
+ */
+public class BatchMatcher {
+
+    public record OrderCandidate(Long orderId, GeoPoint pickup, Instant readySince) {
+    }
+
+    public record RiderCandidate(Long riderId, GeoPoint position) {
+    }
+
+    public record Match(Long orderId, Long riderId, double cost) {
+    }
+
+    private record Cell(long row, long column) {
+    }
+
+    private static final Cell UNLOCATED = new Cell(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final DispatchCostModel costModel;
+    private final double cellDegrees;
+    private final int spilloverLimit;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param costModel Cost of assigning a rider to an order.
+     * @param cellDegrees Partition cell size in degrees (0.05 is roughly 5 km).
+     * @param spilloverLimit Maximum orders (and riders) in the cross-cell pass over what the cells left unmatched.
+     * @param pool Pool the partitions are solved on.
+     */
+    public BatchMatcher(DispatchCostModel costModel, double cellDegrees, int spilloverLimit, ForkJoinPool pool) {
+        this.costModel = costModel;
+        this.cellDegrees = cellDegrees;
+        this.spilloverLimit = spilloverLimit;
+        this.pool = pool;
+    }
+
+    /**
+     * @param orders Waiting orders, oldest first (the spillover pass keeps the oldest).
+     * @param riders Available riders.
+     * @return The minimum-cost matches, at most one per order and per rider.
+     */
+    public List<Match> match(List<OrderCandidate> orders, List<RiderCandidate> riders, Instant now) {
+        Map<Cell, List<OrderCandidate>> ordersByCell = new HashMap<>();
+        for (OrderCandidate order : orders) {
+            ordersByCell.computeIfAbsent(cellOf(order.pickup()), cell -> new ArrayList<>()).add(order);
+        }
+        Map<Cell, List<RiderCandidate>> ridersByCell = new HashMap<>();
+        for (RiderCandidate rider : riders) {
+            ridersByCell.computeIfAbsent(cellOf(rider.position()), cell -> new ArrayList<>()).add(rider);
+        }
+
+        List<Map.Entry<Cell, List<OrderCandidate>>> partitions = new ArrayList<>();
+        for (Map.Entry<Cell, List<OrderCandidate>> entry : ordersByCell.entrySet()) {
+            if (ridersByCell.containsKey(entry.getKey())) {
+                partitions.add(entry);
+            }
+        }
+
+        List<Match> matches;
+        try {
+            matches = new ArrayList<>(pool.submit(() -> partitions.parallelStream()
+                    .flatMap(partition -> solve(partition.getValue(), ridersByCell.get(partition.getKey()), now).stream())
+                    .toList()).get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while matching orders to riders", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Order-to-rider matching failed", e.getCause());
+        }
+
+        // Cross-cell pass over the leftovers
+        Set<Long> matchedOrders = new HashSet<>();
+        Set<Long> matchedRiders = new HashSet<>();
+        for (Match match : matches) {
+            matchedOrders.add(match.orderId());
+            matchedRiders.add(match.riderId());
+        }
+        List<OrderCandidate> leftoverOrders = orders.stream()
+                .filter(order -> !matchedOrders.contains(order.orderId()))
+                .limit(spilloverLimit)
+                .toList();
+        List<RiderCandidate> leftoverRiders = riders.stream()
+                .filter(rider -> !matchedRiders.contains(rider.riderId()))
+                .limit(spilloverLimit)
+                .toList();
+        if (!leftoverOrders.isEmpty() && !leftoverRiders.isEmpty()) {
+            matches.addAll(solve(leftoverOrders, leftoverRiders, now));
+        }
+        return matches;
+    }
+
+    private List<Match> solve(List<OrderCandidate> orders, List<RiderCandidate> riders, Instant now) {
+        double[][] cost = new double[orders.size()][riders.size()];
+        for (int i = 0; i < orders.size(); i++) {
+            OrderCandidate order = orders.get(i);
+            for (int j = 0; j < riders.size(); j++) {
+                cost[i][j] = costModel.cost(order, riders.get(j), now);
+            }
+        }
+        int[] riderOfOrder = AssignmentSolver.solve(cost);
+        List<Match> matches = new ArrayList<>(Math.min(orders.size(), riders.size()));
+        for (int i = 0; i < riderOfOrder.length; i++) {
+            if (riderOfOrder[i] >= 0) {
+                matches.add(new Match(orders.get(i).orderId(), riders.get(riderOfOrder[i]).riderId(), cost[i][riderOfOrder[i]]));
+            }
+        }
+        return matches;
+    }
+
+    private Cell cellOf(GeoPoint point) {
+        if (point == null) {
+            return UNLOCATED;
+        }
+        return new Cell((long) Math.floor(point.latitude() / cellDegrees), (long) Math.floor(point.longitude() / cellDegrees));
+    }
+}
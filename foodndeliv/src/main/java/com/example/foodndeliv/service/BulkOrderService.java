@@ -0,0 +1,271 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.BulkOrderResponseDTO;
+import com.example.foodndeliv.dto.BulkOrderResultDTO;
+import com.example.foodndeliv.dto.OrderRequestDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.Customer;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.exception.TooManyRequestsException;
+import com.example.foodndeliv.repository.CustomerRepository;
+import com.example.foodndeliv.repository.OrderRepository;
+import com.example.foodndeliv.repository.RestaurantRepository;
+import com.example.foodndeliv.types.OrderState;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Creates many orders per request (partner integrations, load tests).
+ * Orders are processed in chunks; per chunk, customers and restaurants are resolved with one query each,
+ * menus are preloaded into the MenuCatalog with one query, and all orders and lines are inserted in JDBC
+ * batches in a single transaction. Each order takes a token from its restaurant's admission control bucket,
+ * without waiting; orders over the restaurant's rate fail with a retry-after. Invalid orders are reported and skipped. If the database rejects a
+ * chunk, its orders are retried one at a time through OrderService, so only the offending ones fail.
+ */
+@Service
+public class BulkOrderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOrderService.class);
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderPricer orderPricer;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private OrderAdmissionControl orderAdmissionControl;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${foodndeliv.orders.bulk.max-orders:5000}")
+    private int maxOrders;
+
+    @Value("${foodndeliv.orders.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkOrderService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Creates the orders of a JSON array.
+     * @return One result per order, in request order.
+     * @throws IllegalArgumentException if the batch is empty or larger than the configured maximum.
+     */
+    public BulkOrderResponseDTO createOrders(List<OrderRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required.");
+        }
+        checkSize(requests.size());
+        return process(requests, new HashMap<>());
+    }
+
+    /**
+     * Creates the orders of an NDJSON stream (one OrderRequestDTO per line; blank lines are skipped).
+     * A malformed line fails only its own order.
+     * @return One result per non-blank line, in stream order.
+     * @throws IllegalArgumentException if the stream holds no orders or more than the configured maximum.
+     */
+    public BulkOrderResponseDTO createOrdersFromNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(OrderRequestDTO.class);
+        List<OrderRequestDTO> requests = new ArrayList<>();
+        Map<Integer, String> parseErrors = new HashMap<>();
+
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            checkSize(requests.size() + 1);
+            try {
+                requests.add(reader.readValue(line));
+            } catch (JsonProcessingException e) {
+                parseErrors.put(requests.size(), "Malformed order: " + e.getOriginalMessage());
+                requests.add(null);
+            }
+        }
+        if (requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required.");
+        }
+        return process(requests, parseErrors);
+    }
+
+    private BulkOrderResponseDTO process(List<OrderRequestDTO> requests, Map<Integer, String> knownErrors) {
+        long startedAt = System.nanoTime();
+        BulkOrderResultDTO[] results = new BulkOrderResultDTO[requests.size()];
+        knownErrors.forEach((index, error) -> results[index] = failure(index, error));
+
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            processChunk(requests, results, from, Math.min(from + chunkSize, requests.size()));
+        }
+
+        int created = (int) Arrays.stream(results).filter(BulkOrderResultDTO::isCreated).count();
+        logger.info("Bulk order request: {} received, {} created, {} failed in {} ms", requests.size(), created,
+                requests.size() - created, (System.nanoTime() - startedAt) / 1_000_000);
+        return new BulkOrderResponseDTO(requests.size(), created, requests.size() - created, Arrays.asList(results));
+    }
+
+    private void processChunk(List<OrderRequestDTO> requests, BulkOrderResultDTO[] results, int from, int to) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> customerIds = new HashSet<>();
+                Set<Long> restaurantIds = new HashSet<>();
+                for (int i = from; i < to; i++) {
+                    OrderRequestDTO request = requests.get(i);
+                    if (results[i] == null && request != null) {
+                        customerIds.add(request.getCustomerId());
+                        restaurantIds.add(request.getRestaurantId());
+                    }
+                }
+                customerIds.remove(null);
+                restaurantIds.remove(null);
+
+                Set<Long> existingCustomers = new HashSet<>(customerRepository.findExistingIds(customerIds));
+                Map<Long, Restaurant> restaurants = new HashMap<>();
+                restaurantRepository.findAllById(restaurantIds).forEach(r -> restaurants.put(r.getId(), r));
+                menuCatalog.preload(restaurants.keySet());
+
+                List<Order> orders = new ArrayList<>();
+                List<Integer> indexes = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    if (results[i] != null) {
+                        continue;
+                    }
+                    try {
+                        orders.add(buildOrder(requests.get(i), existingCustomers, restaurants));
+                        indexes.add(i);
+                    } catch (IllegalArgumentException | NoSuchElementException e) {
+                        results[i] = failure(i, e.getMessage());
+                    } catch (TooManyRequestsException e) {
+                        results[i] = new BulkOrderResultDTO(i, false, null, null, null, null, e.getMessage(),
+                                e.getRetryAfterSeconds());
+                    }
+                }
+
+                // One JDBC batch per table for the whole chunk instead of the default batch size
+                entityManager.unwrap(Session.class).setJdbcBatchSize(Math.max(chunkSize, 1));
+                orderRepository.saveAll(orders);
+                entityManager.flush();
+                for (int k = 0; k < orders.size(); k++) {
+                    results[indexes.get(k)] = success(indexes.get(k), orders.get(k));
+                }
+                entityManager.clear(); // keep the (possibly request-scoped) persistence context small
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Bulk order chunk [{}, {}) rolled back ({}); retrying its orders one by one", from, to, e.getMessage());
+            retryOneByOne(requests, results, from, to);
+        }
+    }
+
+    // Orders that passed validation in the rolled-back chunk go through the single-order path
+    private void retryOneByOne(List<OrderRequestDTO> requests, BulkOrderResultDTO[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (results[i] != null && !results[i].isCreated()) {
+                continue;
+            }
+            try {
+                OrderResponseDTO order = orderService.createOrder(requests.get(i));
+                results[i] = new BulkOrderResultDTO(i, true, order.getId(), order.getState(), order.getTotalPrice(),
+                        order.getRiderId(), null, null);
+            } catch (RuntimeException e) {
+                results[i] = failure(i, e.getMessage());
+            }
+        }
+    }
+
+    private Order buildOrder(OrderRequestDTO request, Set<Long> existingCustomers, Map<Long, Restaurant> restaurants) {
+        if (request == null) {
+            throw new IllegalArgumentException("Order is required.");
+        }
+        if (request.getCustomerId() == null || !existingCustomers.contains(request.getCustomerId())) {
+            throw new NoSuchElementException("Customer not found with ID: " + request.getCustomerId());
+        }
+        Restaurant restaurant = restaurants.get(request.getRestaurantId());
+        if (restaurant == null) {
+            throw new NoSuchElementException("Restaurant not found with ID: " + request.getRestaurantId());
+        }
+        OrderState state = request.getState() != null ? request.getState() : OrderState.OPEN;
+        if (!state.isInitial()) {
+            throw new IllegalArgumentException("New orders must be OPEN or CONFIRMED, not " + state + ".");
+        }
+        orderAdmissionControl.admitNow(restaurant.getId());
+
+        Order order = new Order();
+        order.setCustomer(entityManager.getReference(Customer.class, request.getCustomerId())); // existence checked above
+        order.setRestaurant(restaurant);
+        order.setState(state);
+        orderPricer.priceLines(order, request.getOrderLines());
+        if (DispatchService.isDispatchable(state)) {
+            dispatchService.assignRider(order);
+        }
+        salesAnalyticsService.orderCreated(order);
+        return order;
+    }
+
+    private void checkSize(int size) {
+        if (size > maxOrders) {
+            throw new IllegalArgumentException("At most " + maxOrders + " orders can be created per request.");
+        }
+    }
+
+    private static BulkOrderResultDTO success(int index, Order order) {
+        Long riderId = order.getRider() != null ? order.getRider().getId() : null;
+        return new BulkOrderResultDTO(index, true, order.getId(), order.getState(), order.getTotalPrice(), riderId, null, null);
+    }
+
+    private static BulkOrderResultDTO failure(int index, String error) {
+        return new BulkOrderResultDTO(index, false, null, null, null, null, error, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.foodndeliv.service;
+
+import java.time.Instant;
+
+/**
+ * Cost of sending a rider to an order's pickup, in minutes: estimated travel time to the
+ * restaurant minus a credit for how long the order has already waited. The credit does not
+ * change which rider an order gets, but when riders are scarce it makes older orders win.
+ */
+public class DispatchCostModel {
+
+    private final double speedKmPerMinute;
+    private final double unknownTravelMinutes;
+    private final double waitWeight;
+
+    /**
+     * @param averageSpeedKmh Average rider speed used to turn distance into travel time.
+     * @param unknownTravelMinutes Travel time assumed when the rider's or restaurant's position is unknown.
+     * @param waitWeight Minutes of cost credited per minute the order has waited.
+     */
+    public DispatchCostModel(double averageSpeedKmh, double unknownTravelMinutes, double waitWeight) {
+        this.speedKmPerMinute = averageSpeedKmh / 60.0;
+        this.unknownTravelMinutes = unknownTravelMinutes;
+        this.waitWeight = waitWeight;
+    }
+
+    public double cost(BatchMatcher.OrderCandidate order, BatchMatcher.RiderCandidate rider, Instant now) {
+        double travelMinutes = order.pickup() != null && rider.position() != null
+                ? rider.position().distanceKm(order.pickup()) / speedKmPerMinute
+                : unknownTravelMinutes;
+        double waitedMinutes = order.readySince() != null
+                ? Math.max(0, now.toEpochMilli() - order.readySince().toEpochMilli()) / 60_000.0
+                : 0.0;
+        return travelMinutes - waitWeight * waitedMinutes;
+    }
+}
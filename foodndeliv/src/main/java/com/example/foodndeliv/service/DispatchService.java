@@ -0,0 +1,238 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.Rider;
+import com.example.foodndeliv.repository.OrderRepository;
+import com.example.foodndeliv.repository.RiderRepository;
+import com.example.foodndeliv.types.DispatchMode;
+import com.example.foodndeliv.types.OrderState;
+import com.example.foodndeliv.types.RiderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Assigns riders to orders as soon as an order becomes CONFIRMED or ACCEPTED.
+ * Riders are taken from the in-memory RiderAvailabilityIndex (no query to find one) and
+ * confirmed with a single conditional update (AVAILABLE -> ON_DELIVERY); a rider taken for a
+ * transaction that rolls back goes back into the index. Orders that find no rider wait
+ * (rider_id NULL) and are served, oldest first, when a rider becomes available.
+ * In BATCH mode orders are only left waiting here, and BatchDispatcher assigns them per window.
+ */
+@Service
+public class DispatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchService.class);
+
+    @Autowired
+    private RiderAvailabilityIndex riderAvailabilityIndex;
+
+    @Autowired
+    private RiderRepository riderRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${foodndeliv.dispatch.waiting-batch-size:100}")
+    private int waitingBatchSize;
+
+    @Value("${foodndeliv.dispatch.mode:GREEDY}")
+    private DispatchMode mode;
+
+    // Dispatch triggered from after-commit callbacks must not join the finished transaction
+    private final TransactionTemplate newTransaction;
+
+    public DispatchService(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static boolean isDispatchable(OrderState state) {
+        return state == OrderState.CONFIRMED || state == OrderState.ACCEPTED;
+    }
+
+    /**
+     * Assigns a rider to an order that is being saved in the current transaction.
+     * Leaves the order unassigned (waiting) if no rider is available.
+     * @param order The CONFIRMED/ACCEPTED order, not yet assigned.
+     * @return true if a rider was assigned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean assignRider(Order order) {
+        if (mode == DispatchMode.BATCH) {
+            return false;
+        }
+        Long riderId = claimRider();
+        if (riderId == null) {
+            logger.info("No rider available; order will wait for one (restaurant ID: {})", order.getRestaurant().getId());
+            return false;
+        }
+        order.setRider(entityManager.getReference(Rider.class, riderId));
+        logger.info("Assigned rider ID: {} to new order", riderId);
+        return true;
+    }
+
+    /**
+     * Assigns a rider to an already committed order that has become CONFIRMED/ACCEPTED.
+     * Runs in its own transaction; safe to call for orders that are already assigned or no longer dispatchable.
+     * @return The assigned rider ID, or null if none was assigned.
+     */
+    public Long orderReady(Long orderId) {
+        if (mode == DispatchMode.BATCH) {
+            return null;
+        }
+        try {
+            return newTransaction.execute(status -> {
+                Long riderId = claimRider();
+                if (riderId == null) {
+                    logger.info("No rider available; order ID: {} will wait for one", orderId);
+                    return null;
+                }
+                if (orderRepository.assignRiderIfWaiting(orderId, riderId) == 0) {
+                    // Already assigned by someone else, or no longer CONFIRMED/ACCEPTED: give the rider back
+                    status.setRollbackOnly();
+                    return null;
+                }
+                logger.info("Assigned rider ID: {} to order ID: {}", riderId, orderId);
+                return riderId;
+            });
+        } catch (Exception e) {
+            // Never fail the caller's (already committed) work; the order stays waiting
+            logger.error("Dispatch failed for order ID: {}: {}", orderId, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Assigns a specific rider to a specific order (a batch dispatch match), in its own transaction.
+     * @return false if the rider was taken or the order assigned/changed since the batch was collected.
+     */
+    public boolean assignMatch(Long orderId, Long riderId) {
+        if (!riderAvailabilityIndex.take(riderId)) {
+            return false;
+        }
+        try {
+            Boolean assigned = newTransaction.execute(status -> {
+                if (!confirmClaim(riderId)) {
+                    return false;
+                }
+                if (orderRepository.assignRiderIfWaiting(orderId, riderId) == 0) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+            return Boolean.TRUE.equals(assigned);
+        } catch (Exception e) {
+            logger.error("Assigning rider ID: {} to order ID: {} failed: {}", riderId, orderId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Frees the rider of an order that has reached a final state: ON_DELIVERY -> AVAILABLE in the
+     * current transaction, and back into the index (serving waiting orders) once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseRider(Long riderId) {
+        if (riderRepository.releaseIfOnDelivery(riderId) == 1) {
+            logger.info("Released rider ID: {}", riderId);
+            TransactionHooks.afterCommit(() -> riderAvailable(riderId));
+        }
+    }
+
+    /**
+     * Called once a rider's change to AVAILABLE has committed: indexes the rider and serves waiting orders.
+     */
+    public void riderAvailable(Long riderId) {
+        riderAvailabilityIndex.release(riderId);
+        dispatchWaitingOrders();
+    }
+
+    /**
+     * Called once a rider's change away from AVAILABLE (or its deletion) has committed.
+     */
+    public void riderUnavailable(Long riderId) {
+        riderAvailabilityIndex.remove(riderId);
+    }
+
+    /**
+     * Assigns available riders to waiting orders, oldest order first, until either runs out
+     * (at most one batch per call). No-op in BATCH mode, where BatchDispatcher serves waiting orders.
+     * @return The number of orders assigned.
+     */
+    public int dispatchWaitingOrders() {
+        if (mode == DispatchMode.BATCH || riderAvailabilityIndex.isEmpty()) {
+            return 0;
+        }
+        List<Long> waitingOrderIds = orderRepository.findIdsWaitingForRider(PageRequest.of(0, waitingBatchSize));
+        int assigned = 0;
+        for (Long orderId : waitingOrderIds) {
+            if (riderAvailabilityIndex.isEmpty()) {
+                break;
+            }
+            if (orderReady(orderId) != null) {
+                assigned++;
+            }
+        }
+        if (assigned > 0) {
+            logger.info("Assigned riders to {} waiting order(s)", assigned);
+        }
+        return assigned;
+    }
+
+    /**
+     * Builds the availability index from the database and serves orders left waiting before startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAvailableRiders() {
+        List<Long> riderIds = riderRepository.findIdsByStatus(RiderStatus.AVAILABLE);
+        riderIds.forEach(riderAvailabilityIndex::release);
+        logger.info("Rider availability index loaded with {} available rider(s); dispatch mode {}", riderIds.size(), mode);
+        dispatchWaitingOrders();
+    }
+
+    /**
+     * Takes riders from the index until one is confirmed AVAILABLE -> ON_DELIVERY in the database.
+     * Must run inside a transaction; the rider returns to the index if that transaction rolls back.
+     */
+    private Long claimRider() {
+        Long riderId;
+        while ((riderId = riderAvailabilityIndex.claim()) != null) {
+            if (confirmClaim(riderId)) {
+                return riderId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Confirms a rider taken from the index with the conditional AVAILABLE -> ON_DELIVERY update.
+     */
+    private boolean confirmClaim(Long riderId) {
+        if (riderRepository.claimIfAvailable(riderId) == 1) {
+            TransactionHooks.afterRollback(() -> riderAvailabilityIndex.release(riderId));
+            return true;
+        }
+        // Stale entry: the rider's status changed without going through this instance
+        logger.debug("Rider ID: {} was no longer available", riderId);
+        return false;
+    }
+}
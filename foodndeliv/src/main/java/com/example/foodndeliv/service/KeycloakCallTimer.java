@@ -0,0 +1,51 @@
+package com.example.foodndeliv.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Times Keycloak admin API calls as foodndeliv.keycloak.calls{call, outcome=success|error},
+ * with percentile histograms. A call counts as an error if it throws or, for calls that report failure in their
+ * result (e.g. an HTTP Response), if the given classifier rejects the result. Call names are fixed strings chosen by the callers, so cardinality stays bounded.
+ */
+@Component
+public class KeycloakCallTimer {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public <T> T record(String call, Supplier<T> action) {
+        return record(call, action, result -> true);
+    }
+
+    public <T> T record(String call, Supplier<T> action, Predicate<? super T> succeeded) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = action.get();
+            if (succeeded.test(result)) {
+                outcome = "success";
+            }
+            return result;
+        } finally {
+            sample.stop(Timer.builder("foodndeliv.keycloak.calls")
+                    .description("Keycloak admin API calls")
+                    .tag("call", call)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void run(String call, Runnable action) {
+        record(call, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.ProvisioningTask;
+import com.example.foodndeliv.types.ProvisioningSubject;
+import org.keycloak.admin.client.CreatedResponseUtil;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.CredentialRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response; // For Keycloak Admin Client Response
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Performs the Keycloak admin calls for customer and rider users.
+ * Only called by ProvisioningWorker, outside of any database transaction.
+ * Every operation is safe to repeat, since a task may be retried after a partial failure;
+ * failures are thrown so the worker can retry them.
+ */
+@Component
+public class KeycloakProvisioner {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeycloakProvisioner.class);
+
+    @Autowired
+    private Keycloak keycloakAdminClient;
+
+    @Autowired
+    private KeycloakRoleCache keycloakRoleCache;
+
+    @Autowired
+    private KeycloakCallTimer keycloakCallTimer;
+
+    @Value("${keycloak.target-realm}")
+    private String targetRealm; // This should be "fnd"
+
+    /**
+     * Creates (or adopts, if a previous attempt already created it) the Keycloak user for the task
+     * and assigns the subject's realm role. The attribute linking the user back to the application ID
+     * is sent with the create call, so a new user costs two round trips (create, role mapping);
+     * the role itself comes from KeycloakRoleCache.
+     * @return The Keycloak user ID.
+     */
+    public String createUser(ProvisioningTask task) {
+        UsersResource usersResource = keycloakAdminClient.realm(targetRealm).users();
+
+        String keycloakUserId;
+        Response response = keycloakCallTimer.record("create_user", () -> usersResource.create(toUserRepresentation(task)),
+                created -> created.getStatus() == 201); // a 409 or 5xx comes back as a Response, not an exception
+        try {
+            if (response.getStatus() == 201) { // HTTP 201 Created
+                keycloakUserId = CreatedResponseUtil.getCreatedId(response);
+                logger.info("Keycloak user created successfully with ID: {} for {} ID: {} (Keycloak Username: {})",
+                        keycloakUserId, task.getSubjectType(), task.getSubjectId(), task.getUsername());
+            } else if (response.getStatus() == 409) {
+                // Created by an earlier attempt that failed afterwards
+                keycloakUserId = findByUsername(usersResource, task.getUsername());
+                if (keycloakUserId == null) {
+                    throw new IllegalStateException("Keycloak reported a conflict for username '" + task.getUsername()
+                            + "' but no such user was found (email already in use?)");
+                }
+                logger.info("Keycloak user for {} ID: {} already exists with ID: {}", task.getSubjectType(), task.getSubjectId(), keycloakUserId);
+            } else {
+                String errorReason = response.getStatusInfo() != null ? response.getStatusInfo().getReasonPhrase() : "Unknown reason";
+                String errorDetails = "No details";
+                if (response.hasEntity()) {
+                    try {
+                        errorDetails = response.readEntity(String.class);
+                    } catch (Exception e) {
+                        logger.warn("Could not read error entity from Keycloak response", e);
+                    }
+                }
+                throw new IllegalStateException("Keycloak user creation failed. Status: " + response.getStatus()
+                        + ". Reason: " + errorReason + ". Details: " + errorDetails);
+            }
+        } finally {
+            response.close(); // Important: always close the Keycloak response
+        }
+
+        // Assign the realm role ('customer' or 'rider'); adding an already assigned role is a no-op
+        String roleName = roleName(task.getSubjectType());
+        try {
+            RoleRepresentation role = keycloakRoleCache.realmRole(roleName);
+            keycloakCallTimer.run("assign_role", () -> usersResource.get(keycloakUserId).roles().realmLevel()
+                    .add(Collections.singletonList(role)));
+        } catch (NotFoundException e) {
+            // The cached role may be stale (role recreated in Keycloak); refetch on the retry
+            keycloakRoleCache.evict(roleName);
+            throw e;
+        }
+        logger.info("Assigned '{}' role to Keycloak user ID: {}", roleName, keycloakUserId);
+
+        return keycloakUserId;
+    }
+
+    /**
+     * Deletes the Keycloak user(s) of the task's subject. Finding no user counts as success.
+     * Uses the stored Keycloak user ID when there is one (a single call);
+     * users provisioned before IDs were stored are looked up by attribute, username or email.
+     */
+    public void deleteUser(ProvisioningTask task) {
+        UsersResource usersResource = keycloakAdminClient.realm(targetRealm).users();
+
+        if (task.getKeycloakUserId() != null) {
+            try {
+                keycloakCallTimer.run("delete_user", () -> usersResource.get(task.getKeycloakUserId()).remove());
+                logger.info("Keycloak user for {} ID: {} (Keycloak ID: {}) deleted successfully.",
+                        task.getSubjectType(), task.getSubjectId(), task.getKeycloakUserId());
+            } catch (NotFoundException e) {
+                logger.warn("Keycloak user ID: {} for {} ID: {} was already deleted.",
+                        task.getKeycloakUserId(), task.getSubjectType(), task.getSubjectId());
+            }
+            return;
+        }
+
+        // Riders are matched by their 'rider_id' attribute first (more robust than the generated username)
+        if (task.getSubjectType() == ProvisioningSubject.RIDER) {
+            List<UserRepresentation> usersByAttribute = keycloakCallTimer.record("search_user",
+                    () -> usersResource.searchByAttributes("rider_id:" + task.getSubjectId()));
+            if (usersByAttribute != null && !usersByAttribute.isEmpty()) {
+                for (UserRepresentation user : usersByAttribute) {
+                    keycloakCallTimer.run("delete_user", () -> usersResource.get(user.getId()).remove());
+                    logger.info("Keycloak user for rider ID: {} (Keycloak ID: {}) deleted successfully.", task.getSubjectId(), user.getId());
+                }
+                return;
+            }
+        }
+
+        String keycloakUserId = findByUsername(usersResource, task.getUsername());
+        if (keycloakUserId == null && task.getEmail() != null) {
+            List<UserRepresentation> usersByEmail = keycloakCallTimer.record("search_user",
+                    () -> usersResource.searchByEmail(task.getEmail(), true));
+            if (usersByEmail != null && !usersByEmail.isEmpty()) {
+                keycloakUserId = usersByEmail.get(0).getId();
+            }
+        }
+        if (keycloakUserId == null) {
+            logger.warn("Could not find Keycloak user for {} ID: {} (username: {}) to delete.",
+                    task.getSubjectType(), task.getSubjectId(), task.getUsername());
+            return;
+        }
+        String userIdToDelete = keycloakUserId;
+        keycloakCallTimer.run("delete_user", () -> usersResource.get(userIdToDelete).remove());
+        logger.info("Keycloak user for {} ID: {} (Keycloak ID: {}) deleted successfully.",
+                task.getSubjectType(), task.getSubjectId(), keycloakUserId);
+    }
+
+    private UserRepresentation toUserRepresentation(ProvisioningTask task) {
+        UserRepresentation keycloakUser = new UserRepresentation();
+        keycloakUser.setUsername(task.getUsername());
+        keycloakUser.setFirstName(task.getFirstName());
+        keycloakUser.setLastName(task.getLastName());
+        if (task.getEmail() != null) {
+            keycloakUser.setEmail(task.getEmail());
+            keycloakUser.setEmailVerified(true); // Set as per your policy, can be false initially
+        }
+        keycloakUser.setEnabled(true);
+        // Application-specific ID ('custid' or 'rider_id'), set at creation instead of a read-modify-write afterwards
+        keycloakUser.setAttributes(Collections.singletonMap(idAttribute(task.getSubjectType()),
+                Collections.singletonList(task.getSubjectId().toString())));
+
+        CredentialRepresentation credential = new CredentialRepresentation();
+        credential.setType(CredentialRepresentation.PASSWORD);
+        credential.setTemporary(true); // User will be forced to change password on first login
+        credential.setValue(temporaryPassword(task.getSubjectType())); // TODO: Make this configurable or randomly generated
+        keycloakUser.setCredentials(Collections.singletonList(credential));
+        return keycloakUser;
+    }
+
+    private String findByUsername(UsersResource usersResource, String username) {
+        List<UserRepresentation> users = keycloakCallTimer.record("search_user", () -> usersResource.searchByUsername(username, true));
+        return users != null && !users.isEmpty() ? users.get(0).getId() : null;
+    }
+
+    private static String roleName(ProvisioningSubject subjectType) {
+        return subjectType == ProvisioningSubject.CUSTOMER ? "customer" : "rider";
+    }
+
+    private static String idAttribute(ProvisioningSubject subjectType) {
+        return subjectType == ProvisioningSubject.CUSTOMER ? "custid" : "rider_id";
+    }
+
+    private static String temporaryPassword(ProvisioningSubject subjectType) {
+        return subjectType == ProvisioningSubject.CUSTOMER ? "Welcome123!" : "TempRiderPass123!";
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.foodndeliv.service;
+
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches realm role representations of the target realm for a configurable TTL,
+ * so assigning the 'customer' or 'rider' role does not fetch the role from Keycloak every time.
+ */
+@Component
+public class KeycloakRoleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeycloakRoleCache.class);
+
+    private record CachedRole(RoleRepresentation role, Instant expiresAt) {
+    }
+
+    @Autowired
+    private Keycloak keycloakAdminClient;
+
+    @Autowired
+    private KeycloakCallTimer keycloakCallTimer;
+
+    @Value("${keycloak.target-realm}")
+    private String targetRealm;
+
+    @Value("${keycloak.role-cache-ttl:PT5M}")
+    private Duration ttl;
+
+    private final ConcurrentHashMap<String, CachedRole> rolesByName = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the realm role with the given name, fetching it from Keycloak if not cached or expired.
+     * @throws jakarta.ws.rs.NotFoundException if the role does not exist in the realm.
+     */
+    public RoleRepresentation realmRole(String roleName) {
+        Instant now = Instant.now();
+        CachedRole cached = rolesByName.get(roleName);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return cached.role();
+        }
+        // Concurrent misses may both fetch; the role is small and the last one wins
+        RoleRepresentation role = keycloakCallTimer.record("get_role",
+                () -> keycloakAdminClient.realm(targetRealm).roles().get(roleName).toRepresentation());
+        rolesByName.put(roleName, new CachedRole(role, now.plus(ttl)));
+        logger.debug("Cached Keycloak realm role '{}' (ID: {}) for {}", roleName, role.getId(), ttl);
+        return role;
+    }
+
+    /**
+     * Drops a cached role, e.g. after Keycloak rejected it because it was recreated.
+     */
+    public void evict(String roleName) {
+        rolesByName.remove(roleName);
+    }
+}
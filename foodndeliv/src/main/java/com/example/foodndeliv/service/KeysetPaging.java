@@ -0,0 +1,79 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.CursorPageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared keyset (cursor) pagination rules for collection endpoints.
+ * Pages are ordered by ID; the cursor is an opaque token wrapping the last ID returned,
+ * so each page is a single index range scan no matter how deep the client pages.
+ */
+@Component
+public class KeysetPaging {
+
+    @Value("${foodndeliv.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${foodndeliv.pagination.max-page-size:500}") // Server-enforced upper bound
+    private int maxPageSize;
+
+    /**
+     * Resolves the requested page size, falling back to the default and capping at the maximum.
+     * @throws IllegalArgumentException if the requested size is not positive.
+     */
+    public int pageSize(Integer requested) {
+        if (requested == null) {
+            return defaultPageSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be a positive number.");
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Decodes a cursor into the last ID already returned (0 for the first page).
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) { // NumberFormatException is an IllegalArgumentException too
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Fetch one row more than the page size so we know whether a next page exists.
+     */
+    public Pageable probe(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Builds a page from rows fetched with {@link #probe(int)}.
+     */
+    public <E, T> CursorPageDTO<T> toPage(List<E> rows, int pageSize, Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        List<T> items = pageRows.stream().map(mapper).collect(Collectors.toList());
+        String nextCursor = hasMore ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        return new CursorPageDTO<>(items, nextCursor, items.size());
+    }
+
+    public String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.RiderPositionDTO;
+import com.example.foodndeliv.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximates a rider's position by the restaurant of their most recent order.
+ */
+@Component
+public class LastPickupPositionSource implements RiderPositionSource {
+
+    // Keeps the IN list well below PostgreSQL's bind parameter limit
+    private static final int CHUNK_SIZE = 1_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, GeoPoint> positionsOf(Collection<Long> riderIds) {
+        List<Long> ids = new ArrayList<>(riderIds);
+        Map<Long, GeoPoint> positions = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            for (RiderPositionDTO position : orderRepository.findLastPickupPositions(chunk)) {
+                GeoPoint point = GeoPoint.ofNullable(position.getLatitude(), position.getLongitude());
+                if (point != null) {
+                    positions.put(position.getRiderId(), point);
+                }
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.MenuItem;
+import com.example.foodndeliv.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory, read-optimized menu catalog keyed by restaurant ID and normalized product name.
+ * Used to price order lines without a database round trip per line.
+ * Product names are unique per restaurant only case-sensitively, so a normalized name can stand for
+ * several items ("Pizza" and "pizza"); all of them are kept and lookups pick an available one.
+ * A restaurant's menu is loaded with a single query on first use and then kept current
+ * by MenuItemService/RestaurantService (and, for Data REST writes, MenuItemRepositoryEventHandler and
+ * RestaurantRepositoryEventHandler) once their transactions commit.
+ */
+@Component
+public class MenuCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuCatalog.class);
+
+    /**
+     * Immutable snapshot of the fields needed to price an order line.
+     */
+    public record Entry(Long menuItemId, Long restaurantId, String productName, double price, boolean available) {
+    }
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    // Entries sharing a normalized name are held in an immutable list, replaced on every change
+    private final ConcurrentHashMap<Long, Map<String, List<Entry>>> menusByRestaurant = new ConcurrentHashMap<>();
+
+    // Bumped on every write so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Looks up an *available* menu item by restaurant ID and product name, ignoring case and surrounding whitespace.
+     * If several available items match, the one with the lowest ID is returned.
+     * @param restaurantId The restaurant the item belongs to.
+     * @param productName The product name as sent by the client.
+     * @return The catalog entry if the item exists and is available, or empty otherwise.
+     */
+    public Optional<Entry> findAvailable(Long restaurantId, String productName) {
+        if (restaurantId == null || productName == null) {
+            return Optional.empty();
+        }
+        List<Entry> entries = menuOf(restaurantId).get(normalize(productName));
+        if (entries == null) {
+            return Optional.empty();
+        }
+        Entry found = null;
+        for (Entry entry : entries) {
+            if (entry.available() && (found == null || entry.menuItemId() < found.menuItemId())) {
+                found = entry;
+            }
+        }
+        return Optional.ofNullable(found);
+    }
+
+    /**
+     * Returns the cached menu for a restaurant, loading it with one query on a miss.
+     */
+    Map<String, List<Entry>> menuOf(Long restaurantId) {
+        Map<String, List<Entry>> menu = menusByRestaurant.get(restaurantId);
+        if (menu != null) {
+            return menu;
+        }
+
+        long observedGeneration = generation.get();
+        Map<String, List<Entry>> loaded = new ConcurrentHashMap<>();
+        for (MenuItem item : menuItemRepository.findByRestaurantId(restaurantId)) {
+            add(loaded, toEntry(item, restaurantId));
+        }
+        logger.debug("Loaded {} menu items into catalog for restaurant ID: {}", loaded.size(), restaurantId);
+
+        // Only publish the snapshot if no write happened while we were reading it
+        Map<String, List<Entry>> published = menusByRestaurant.compute(restaurantId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return generation.get() == observedGeneration ? loaded : null;
+        });
+        return published != null ? published : loaded;
+    }
+
+    /**
+     * Loads the menus of all given restaurants that are not cached yet with a single query
+     * (bulk order creation), so pricing the batch afterwards needs no further queries.
+     */
+    public void preload(Collection<Long> restaurantIds) {
+        List<Long> missing = restaurantIds.stream()
+                .filter(id -> id != null && !menusByRestaurant.containsKey(id))
+                .distinct()
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        long observedGeneration = generation.get();
+        Map<Long, Map<String, List<Entry>>> loaded = new HashMap<>();
+        missing.forEach(id -> loaded.put(id, new ConcurrentHashMap<>()));
+        for (MenuItem item : menuItemRepository.findByRestaurantIdIn(missing)) {
+            Long restaurantId = item.getRestaurant().getId(); // proxy ID, no extra select
+            add(loaded.get(restaurantId), toEntry(item, restaurantId));
+        }
+        logger.debug("Preloaded menus of {} restaurant(s) into catalog", missing.size());
+
+        // Same rule as menuOf: skip publishing if a write happened while we were reading
+        loaded.forEach((restaurantId, menu) -> menusByRestaurant.compute(restaurantId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return generation.get() == observedGeneration ? menu : null;
+        }));
+    }
+
+    /**
+     * Publishes a created or updated menu item once the current transaction commits.
+     * Handles renames by dropping any previous entry with the same menu item ID.
+     */
+    public void menuItemSaved(MenuItem menuItem) {
+        Long restaurantId = menuItem.getRestaurant().getId();
+        Entry entry = toEntry(menuItem, restaurantId);
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            menusByRestaurant.computeIfPresent(restaurantId, (id, menu) -> {
+                remove(menu, entry.menuItemId());
+                add(menu, entry);
+                return menu;
+            });
+        });
+    }
+
+    /**
+     * Removes a deleted menu item once the current transaction commits.
+     */
+    public void menuItemDeleted(Long restaurantId, Long menuItemId) {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            menusByRestaurant.computeIfPresent(restaurantId, (id, menu) -> {
+                remove(menu, menuItemId);
+                return menu;
+            });
+        });
+    }
+
+    /**
+     * Drops a restaurant's whole menu once the current transaction commits.
+     */
+    public void restaurantDeleted(Long restaurantId) {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            menusByRestaurant.remove(restaurantId);
+        });
+    }
+
+    private static void add(Map<String, List<Entry>> menu, Entry entry) {
+        menu.merge(normalize(entry.productName()), List.of(entry), (current, added) -> {
+            List<Entry> entries = new ArrayList<>(current);
+            entries.addAll(added);
+            return List.copyOf(entries);
+        });
+    }
+
+    private static void remove(Map<String, List<Entry>> menu, Long menuItemId) {
+        for (String name : menu.keySet()) {
+            menu.computeIfPresent(name, (key, entries) -> {
+                List<Entry> kept = entries.stream().filter(existing -> !existing.menuItemId().equals(menuItemId)).toList();
+                return kept.isEmpty() ? null : kept;
+            });
+        }
+    }
+
+    static String normalize(String productName) {
+        return productName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Entry toEntry(MenuItem item, Long restaurantId) {
+        return new Entry(item.getId(), restaurantId, item.getProductName(),
+                item.getPrice() != null ? item.getPrice() : 0.0, item.isAvailable());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.MenuItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds menu items written through the Spring Data REST endpoint (/api/menuItems) into MenuCatalog,
+ * MenuSearchService and RestaurantReadCache, like MenuItemService does.
+ * Data REST has already committed the change when these run.
+ */
+@Component
+@RepositoryEventHandler
+public class MenuItemRepositoryEventHandler {
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    @HandleAfterDelete
+    public void handleMenuItemWritten(MenuItem menuItem) {
+        restaurantReadCache.menuChanged(menuItem.getRestaurant().getId());
+    }
+
+    // Orders are priced from MenuCatalog and products found through MenuSearchService, so price,
+    // name and availability edits must reach both
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void handleMenuItemSaved(MenuItem menuItem) {
+        menuCatalog.menuItemSaved(menuItem);
+        menuSearchService.menuItemSaved(menuItem);
+    }
+
+    @HandleAfterDelete
+    public void handleMenuItemDeleted(MenuItem menuItem) {
+        menuCatalog.menuItemDeleted(menuItem.getRestaurant().getId(), menuItem.getId());
+        menuSearchService.menuItemDeleted(menuItem.getId());
+    }
+}
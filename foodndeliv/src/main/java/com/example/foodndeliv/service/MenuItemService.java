@@ -4,9 +4,9 @@ import com.example.foodndeliv.dto.MenuItemRequestDTO;
 import com.example.foodndeliv.dto.MenuItemResponseDTO;
 import com.example.foodndeliv.entity.MenuItem;
 import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.mapper.MenuItemMapper;
 import com.example.foodndeliv.repository.MenuItemRepository;
 import com.example.foodndeliv.repository.RestaurantRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,7 +25,16 @@ public class MenuItemService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private ModelMapper modelMapper; // Ensure ModelMapperConfig.java exists and is a @Configuration
+    private MenuItemMapper menuItemMapper; // restaurantId is mapped from the restaurant reference
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
 
     @Transactional
     public MenuItemResponseDTO addMenuItemToRestaurant(Long restaurantId, MenuItemRequestDTO menuItemRequestDTO) {
@@ -50,12 +59,11 @@ public class MenuItemService {
         }
 
         MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+        menuCatalog.menuItemSaved(savedMenuItem);
+        menuSearchService.menuItemSaved(savedMenuItem);
+        restaurantReadCache.menuChanged(restaurantId);
 
-        MenuItemResponseDTO responseDTO = modelMapper.map(savedMenuItem, MenuItemResponseDTO.class);
-        if (savedMenuItem.getRestaurant() != null) { // Ensure restaurantId is set in DTO
-            responseDTO.setRestaurantId(savedMenuItem.getRestaurant().getId());
-        }
-        return responseDTO;
+        return menuItemMapper.toDto(savedMenuItem);
     }
 
     @Transactional(readOnly = true)
@@ -64,13 +72,7 @@ public class MenuItemService {
             throw new NoSuchElementException("Restaurant not found with ID: " + restaurantId);
         }
         return menuItemRepository.findByRestaurantId(restaurantId).stream()
-                .map(menuItem -> {
-                    MenuItemResponseDTO dto = modelMapper.map(menuItem, MenuItemResponseDTO.class);
-                    if (menuItem.getRestaurant() != null) {
-                        dto.setRestaurantId(menuItem.getRestaurant().getId());
-                    }
-                    return dto;
-                })
+                .map(menuItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -78,11 +80,7 @@ public class MenuItemService {
     public MenuItemResponseDTO getMenuItemById(Long menuItemId) {
         MenuItem menuItem = menuItemRepository.findById(menuItemId)
                 .orElseThrow(() -> new NoSuchElementException("Menu item not found with ID: " + menuItemId));
-        MenuItemResponseDTO dto = modelMapper.map(menuItem, MenuItemResponseDTO.class);
-        if (menuItem.getRestaurant() != null) {
-            dto.setRestaurantId(menuItem.getRestaurant().getId());
-        }
-        return dto;
+        return menuItemMapper.toDto(menuItem);
     }
 
     @Transactional
@@ -107,20 +105,21 @@ public class MenuItemService {
         }
 
         MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
-        MenuItemResponseDTO responseDTO = modelMapper.map(updatedMenuItem, MenuItemResponseDTO.class);
-        if (updatedMenuItem.getRestaurant() != null) {
-            responseDTO.setRestaurantId(updatedMenuItem.getRestaurant().getId());
-        }
-        return responseDTO;
+        menuCatalog.menuItemSaved(updatedMenuItem);
+        menuSearchService.menuItemSaved(updatedMenuItem);
+        restaurantReadCache.menuChanged(updatedMenuItem.getRestaurant().getId());
+        return menuItemMapper.toDto(updatedMenuItem);
     }
 
     @Transactional
     public void deleteMenuItem(Long menuItemId) {
-        if (!menuItemRepository.existsById(menuItemId)) {
-            throw new NoSuchElementException("Menu item not found with ID: " + menuItemId);
-        }
+        MenuItem menuItem = menuItemRepository.findById(menuItemId)
+                .orElseThrow(() -> new NoSuchElementException("Menu item not found with ID: " + menuItemId));
         
         // hard delete
         menuItemRepository.deleteById(menuItemId);
+        menuCatalog.menuItemDeleted(menuItem.getRestaurant().getId(), menuItemId);
+        menuSearchService.menuItemDeleted(menuItemId);
+        restaurantReadCache.menuChanged(menuItem.getRestaurant().getId());
     }
 }
\ No newline at end of file
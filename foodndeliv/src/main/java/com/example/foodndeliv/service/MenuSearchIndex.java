@@ -0,0 +1,397 @@
+package com.example.foodndeliv.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory trigram index over the product names of every menu item, for typo-tolerant search across restaurants.
+ * Names are split into words of letters and digits, lower-cased, and each word is padded like pg_trgm does
+ * ("  word "), so "Pizza" yields "  p", " pi", "piz", "izz", "zza", "za ". Every distinct trigram has a posting
+ * list of the item slots containing it; items are kept in primitive arrays indexed by slot.
+ * A search counts, per item, how many of the query's trigrams it shares by walking only the query's posting lists,
+ * then ranks items by the share of the query found in the name (so "piza" matches "Margherita Pizza"),
+ * breaking ties by overall similarity (so "Pizza" ranks above "Margherita Pizza").
+ * Writes take a short write lock; searches share a read lock and reuse pooled scratch counters. A scratch
+ * covers every slot (about 6 bytes per item), so the pool keeps at most one per CPU and drops the rest.
+ */
+public class MenuSearchIndex {
+
+    private static final int NO_SLOT = -1;
+
+    // Longer queries are cut, which also keeps per-item counts within a short
+    private static final int MAX_QUERY_CODE_POINTS = 64;
+
+    /**
+     * A menu item found by {@link #search}; score is the share of the query's trigrams found in its name.
+     */
+    public record Match(long menuItemId, long restaurantId, String productName, double price, double score) {
+    }
+
+    private record Scratch(short[] counts, int[] touched) {
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final ArrayBlockingQueue<Scratch> scratchPool =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    // Menu item ID -> slot, and per-slot data
+    private final LongIntHashMap slotsByItem;
+    private long[] slotItem;
+    private long[] slotRestaurant;
+    private String[] slotName;
+    private double[] slotPrice;
+    private boolean[] slotAvailable;
+    private int[] slotTrigramCount;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    // Trigram -> posting list of slots
+    private final LongIntHashMap postingsByTrigram;
+    private int[][] postings;
+    private int[] postingSizes;
+    private int postingCount;
+
+    public MenuSearchIndex(int expectedItems) {
+        int capacity = Math.max(16, expectedItems);
+        this.slotsByItem = new LongIntHashMap(capacity);
+        this.slotItem = new long[capacity];
+        this.slotRestaurant = new long[capacity];
+        this.slotName = new String[capacity];
+        this.slotPrice = new double[capacity];
+        this.slotAvailable = new boolean[capacity];
+        this.slotTrigramCount = new int[capacity];
+        this.postingsByTrigram = new LongIntHashMap(4096);
+        this.postings = new int[4096][];
+        this.postingSizes = new int[4096];
+    }
+
+    /**
+     * Adds or replaces a menu item (a rename re-indexes its name).
+     */
+    public void put(long menuItemId, long restaurantId, String productName, double price, boolean available) {
+        long stamp = lock.writeLock();
+        try {
+            putLocked(menuItemId, restaurantId, productName, price, available);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds a menu item unless it is already indexed (bulk loading must not overwrite newer updates).
+     * @return true if the item was added.
+     */
+    public boolean putIfAbsent(long menuItemId, long restaurantId, String productName, double price, boolean available) {
+        long stamp = lock.writeLock();
+        try {
+            if (slotsByItem.get(menuItemId, NO_SLOT) != NO_SLOT) {
+                return false;
+            }
+            putLocked(menuItemId, restaurantId, productName, price, available);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long menuItemId) {
+        long stamp = lock.writeLock();
+        try {
+            removeLocked(menuItemId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes all items of a restaurant. Scans every slot; only used when a restaurant is deleted.
+     */
+    public void removeRestaurant(long restaurantId) {
+        long stamp = lock.writeLock();
+        try {
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (slotName[slot] != null && slotRestaurant[slot] == restaurantId) {
+                    removeLocked(slotItem[slot]);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slotsByItem.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds available menu items whose names contain most of the query, across all restaurants.
+     * @param minScore Minimum share (0..1] of the query's trigrams an item must contain.
+     * @return Up to limit matches, best first.
+     */
+    public List<Match> search(String query, int limit, double minScore) {
+        long[] queryTrigrams = trigrams(truncate(query));
+        if (limit <= 0 || queryTrigrams.length == 0) {
+            return List.of();
+        }
+        int queryCount = queryTrigrams.length;
+        int minShared = Math.max(1, (int) Math.ceil(minScore * queryCount - 1e-9));
+
+        // Bounded min-heap of the best matches so far, by rank
+        double[] heapRank = new double[limit];
+        int[] heapSlot = new int[limit];
+        int heapSize = 0;
+
+        long stamp = lock.readLock();
+        Scratch scratch = borrowScratch(slotItem.length);
+        try {
+            short[] counts = scratch.counts();
+            int[] touched = scratch.touched();
+            int touchedCount = 0;
+            for (long trigram : queryTrigrams) {
+                int posting = postingsByTrigram.get(trigram, NO_SLOT);
+                if (posting == NO_SLOT) {
+                    continue;
+                }
+                int[] slots = postings[posting];
+                for (int i = 0, n = postingSizes[posting]; i < n; i++) {
+                    int slot = slots[i];
+                    if (counts[slot]++ == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int slot = touched[t];
+                int shared = counts[slot];
+                counts[slot] = 0; // leave the scratch clean for the next search
+                if (shared < minShared || !slotAvailable[slot]) {
+                    continue;
+                }
+                double coverage = (double) shared / queryCount;
+                double similarity = (double) shared / (queryCount + slotTrigramCount[slot] - shared);
+                // Queries have at most ~130 trigrams, so coverage steps are > 1/1000 apart and similarity only orders ties
+                double rank = coverage + similarity / 1000.0;
+                if (heapSize < limit) {
+                    heapRank[heapSize] = rank;
+                    heapSlot[heapSize] = slot;
+                    siftUp(heapRank, heapSlot, heapSize++);
+                } else if (rank > heapRank[0]) {
+                    heapRank[0] = rank;
+                    heapSlot[0] = slot;
+                    siftDown(heapRank, heapSlot, heapSize);
+                }
+            }
+
+            // Heap sort in place: the min-heap ends up ordered best first
+            for (int n = heapSize - 1; n > 0; n--) {
+                swap(heapRank, heapSlot, 0, n);
+                siftDown(heapRank, heapSlot, n);
+            }
+            List<Match> result = new ArrayList<>(heapSize);
+            for (int i = 0; i < heapSize; i++) {
+                int slot = heapSlot[i];
+                double coverage = Math.floor(heapRank[i] * queryCount + 1e-6) / queryCount;
+                result.add(new Match(slotItem[slot], slotRestaurant[slot], slotName[slot], slotPrice[slot], coverage));
+            }
+            return result;
+        } finally {
+            scratchPool.offer(scratch); // dropped if the pool is full
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Distinct trigrams of a text, each packed into a long (three 21-bit code points).
+     */
+    static long[] trigrams(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        int[] codePoints = text.toLowerCase(Locale.ROOT).codePoints().toArray();
+        long[] result = new long[codePoints.length * 3 + 3];
+        int count = 0;
+        int i = 0;
+        while (i < codePoints.length) {
+            if (!Character.isLetterOrDigit(codePoints[i])) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < codePoints.length && Character.isLetterOrDigit(codePoints[i])) {
+                i++;
+            }
+            // Word padded with two leading blanks and one trailing blank
+            int c0 = ' ';
+            int c1 = ' ';
+            for (int j = start; j <= i; j++) {
+                int c2 = j < i ? codePoints[j] : ' ';
+                result[count++] = ((long) c0 << 42) | ((long) c1 << 21) | c2;
+                c0 = c1;
+                c1 = c2;
+            }
+        }
+        long[] distinct = Arrays.copyOf(result, count);
+        Arrays.sort(distinct);
+        int unique = 0;
+        for (int j = 0; j < distinct.length; j++) {
+            if (j == 0 || distinct[j] != distinct[j - 1]) {
+                distinct[unique++] = distinct[j];
+            }
+        }
+        return Arrays.copyOf(distinct, unique);
+    }
+
+    private static String truncate(String query) {
+        if (query == null || query.codePointCount(0, query.length()) <= MAX_QUERY_CODE_POINTS) {
+            return query;
+        }
+        return query.substring(0, query.offsetByCodePoints(0, MAX_QUERY_CODE_POINTS));
+    }
+
+    private void putLocked(long menuItemId, long restaurantId, String productName, double price, boolean available) {
+        int slot = slotsByItem.get(menuItemId, NO_SLOT);
+        if (slot != NO_SLOT && !slotName[slot].equals(productName)) {
+            removeLocked(menuItemId);
+            slot = NO_SLOT;
+        }
+        if (slot == NO_SLOT) {
+            slot = allocateSlot();
+            slotsByItem.put(menuItemId, slot);
+            slotItem[slot] = menuItemId;
+            slotName[slot] = productName;
+            long[] itemTrigrams = trigrams(productName);
+            for (long trigram : itemTrigrams) {
+                addToPosting(trigram, slot);
+            }
+            slotTrigramCount[slot] = itemTrigrams.length;
+        }
+        slotRestaurant[slot] = restaurantId;
+        slotPrice[slot] = price;
+        slotAvailable[slot] = available;
+    }
+
+    private void removeLocked(long menuItemId) {
+        int slot = slotsByItem.remove(menuItemId, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+        for (long trigram : trigrams(slotName[slot])) {
+            removeFromPosting(trigram, slot);
+        }
+        slotName[slot] = null;
+        slotAvailable[slot] = false;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == slotItem.length) {
+            int capacity = slotCount * 2;
+            slotItem = Arrays.copyOf(slotItem, capacity);
+            slotRestaurant = Arrays.copyOf(slotRestaurant, capacity);
+            slotName = Arrays.copyOf(slotName, capacity);
+            slotPrice = Arrays.copyOf(slotPrice, capacity);
+            slotAvailable = Arrays.copyOf(slotAvailable, capacity);
+            slotTrigramCount = Arrays.copyOf(slotTrigramCount, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void addToPosting(long trigram, int slot) {
+        int posting = postingsByTrigram.get(trigram, NO_SLOT);
+        if (posting == NO_SLOT) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+            }
+            posting = postingCount++;
+            postings[posting] = new int[4];
+            postingsByTrigram.put(trigram, posting);
+        }
+        int[] slots = postings[posting];
+        int size = postingSizes[posting];
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+            postings[posting] = slots;
+        }
+        slots[size] = slot;
+        postingSizes[posting] = size + 1;
+    }
+
+    private void removeFromPosting(long trigram, int slot) {
+        int posting = postingsByTrigram.get(trigram, NO_SLOT);
+        if (posting == NO_SLOT) {
+            return;
+        }
+        int[] slots = postings[posting];
+        int last = postingSizes[posting] - 1;
+        for (int i = last; i >= 0; i--) {
+            if (slots[i] == slot) {
+                slots[i] = slots[last];
+                postingSizes[posting] = last;
+                return;
+            }
+        }
+    }
+
+    // Scratch counters must cover every slot; a pooled one from before the slots grew is replaced
+    private Scratch borrowScratch(int slots) {
+        Scratch scratch = scratchPool.poll();
+        if (scratch == null || scratch.counts().length < slots) {
+            scratch = new Scratch(new short[slots], new int[slots]);
+        }
+        return scratch;
+    }
+
+    private static void siftUp(double[] rank, int[] slot, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (rank[parent] <= rank[i]) {
+                break;
+            }
+            swap(rank, slot, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] rank, int[] slot, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left + 1 < size && rank[left + 1] < rank[left] ? left + 1 : left;
+            if (rank[i] <= rank[smallest]) {
+                break;
+            }
+            swap(rank, slot, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(double[] rank, int[] slot, int a, int b) {
+        double r = rank[a];
+        rank[a] = rank[b];
+        rank[b] = r;
+        int s = slot[a];
+        slot[a] = slot[b];
+        slot[b] = s;
+    }
+}
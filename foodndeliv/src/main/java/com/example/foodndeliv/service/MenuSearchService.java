@@ -0,0 +1,152 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.MenuSearchResultDTO;
+import com.example.foodndeliv.entity.MenuItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typo-tolerant product search across all restaurants, answered from an in-memory MenuSearchIndex
+ * (no database access per search). The index is loaded with one streaming query on startup and then
+ * kept current by MenuItemService/RestaurantService and, for Data REST writes, MenuItemRepositoryEventHandler
+ * and RestaurantRepositoryEventHandler once their transactions commit, like MenuCatalog.
+ * Only available items are returned; the product name in a result is exactly what an order line needs.
+ */
+@Service
+public class MenuSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchService.class);
+
+    private static final String LOAD_SQL = "SELECT id, restaurant_id, product_name, price, is_available FROM menu_items";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foodndeliv.menu-search.expected-items:10000}")
+    private int expectedItems;
+
+    @Value("${foodndeliv.menu-search.min-score:0.5}")
+    private double minScore;
+
+    @Value("${foodndeliv.menu-search.max-results:50}")
+    private int maxResults;
+
+    @Value("${foodndeliv.menu-search.max-query-length:64}")
+    private int maxQueryLength;
+
+    private MenuSearchIndex index;
+
+    // Items and restaurants deleted while the startup load is running must not be added back by it
+    private final Set<Long> deletedDuringLoad = ConcurrentHashMap.newKeySet();
+    private final Set<Long> restaurantsDeletedDuringLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = true;
+
+    @PostConstruct
+    public void init() {
+        index = new MenuSearchIndex(expectedItems);
+    }
+
+    /**
+     * Ranked matches for a product name, best first.
+     * @throws IllegalArgumentException if the query is blank or too long, or limit is out of range.
+     */
+    public List<MenuSearchResultDTO> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query 'q' is required.");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new IllegalArgumentException("Search query must be at most " + maxQueryLength + " characters.");
+        }
+        if (limit < 1 || limit > maxResults) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxResults + ".");
+        }
+        List<MenuSearchIndex.Match> matches = index.search(query, limit, minScore);
+        List<MenuSearchResultDTO> results = new ArrayList<>(matches.size());
+        for (MenuSearchIndex.Match match : matches) {
+            results.add(new MenuSearchResultDTO(match.menuItemId(), match.restaurantId(), match.productName(),
+                    match.price(), match.score()));
+        }
+        return results;
+    }
+
+    /**
+     * Indexes a created or updated menu item once the current transaction commits.
+     */
+    public void menuItemSaved(MenuItem menuItem) {
+        long menuItemId = menuItem.getId();
+        long restaurantId = menuItem.getRestaurant().getId();
+        String productName = menuItem.getProductName();
+        double price = menuItem.getPrice() != null ? menuItem.getPrice() : 0.0;
+        boolean available = menuItem.isAvailable();
+        TransactionHooks.afterCommit(() -> index.put(menuItemId, restaurantId, productName, price, available));
+    }
+
+    /**
+     * Removes a deleted menu item once the current transaction commits.
+     */
+    public void menuItemDeleted(Long menuItemId) {
+        TransactionHooks.afterCommit(() -> {
+            if (loading) {
+                deletedDuringLoad.add(menuItemId);
+            }
+            index.remove(menuItemId);
+        });
+    }
+
+    /**
+     * Removes all of a restaurant's items once the current transaction commits.
+     */
+    public void restaurantDeleted(Long restaurantId) {
+        TransactionHooks.afterCommit(() -> {
+            if (loading) {
+                restaurantsDeletedDuringLoad.add(restaurantId);
+            }
+            index.removeRestaurant(restaurantId);
+        });
+    }
+
+    /**
+     * Loads every menu item. Items already indexed by a concurrent write are left as they are, and items or
+     * restaurants deleted during the load are skipped, then removed once more in case a row slipped in
+     * between the check and the insert.
+     * Runs in a read-only transaction so the driver streams the rows (fetch size) instead of buffering the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadIndex() {
+        long started = System.nanoTime();
+        int[] loaded = new int[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_SQL);
+            statement.setFetchSize(1000);
+            return statement;
+        }, rs -> {
+            long menuItemId = rs.getLong(1);
+            long restaurantId = rs.getLong(2);
+            if (!deletedDuringLoad.contains(menuItemId) && !restaurantsDeletedDuringLoad.contains(restaurantId)
+                    && index.putIfAbsent(menuItemId, restaurantId, rs.getString(3), rs.getDouble(4), rs.getBoolean(5))) {
+                loaded[0]++;
+            }
+        });
+        loading = false;
+        deletedDuringLoad.forEach(index::remove);
+        restaurantsDeletedDuringLoad.forEach(index::removeRestaurant);
+        deletedDuringLoad.clear();
+        restaurantsDeletedDuringLoad.clear();
+        logger.info("Menu search index loaded {} item(s) in {} ms.", loaded[0], (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.exception.TooManyRequestsException;
+import com.example.foodndeliv.repository.RestaurantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-restaurant admission control for order creation, so one very busy restaurant cannot take all
+ * request threads and database connections from everyone else.
+ * Each restaurant has its own lock-free TokenBucket (default rate and burst, with optional per-restaurant
+ * rates). An order that finds its bucket empty waits for the next token if that is at most max-wait-ms
+ * away, which smooths short spikes; otherwise it is refused at once with 429 and a Retry-After.
+ * Because waiting is bounded by max-wait-ms, at most rate x max-wait orders per restaurant are ever waiting.
+ * Bulk creation takes one token per order without waiting (admitNow), so a batch cannot bypass the rate.
+ * Outcomes are counted per restaurant as foodndeliv.orders.admission{restaurant, outcome=admitted|queued|rejected}.
+ * Buckets are only created for restaurants that exist (a made-up ID is left to order validation, which
+ * answers 404), and a bucket that has refilled and not been used for idle-evict-ms is dropped, since a new
+ * one starts out identical. Past max-restaurants tracked buckets, further restaurants share one "other"
+ * bucket, which keeps both memory and metric cardinality bounded.
+ */
+@Service
+public class OrderAdmissionControl {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderAdmissionControl.class);
+
+    private static final String OVERFLOW_TAG = "other";
+
+    private static final class Bucket {
+        final TokenBucket tokens;
+        final Counter admitted;
+        final Counter queued;
+        final Counter rejected;
+        volatile long lastUsedNanos;
+
+        Bucket(TokenBucket tokens, Counter admitted, Counter queued, Counter rejected, long nowNanos) {
+            this.tokens = tokens;
+            this.admitted = admitted;
+            this.queued = queued;
+            this.rejected = rejected;
+            this.lastUsedNanos = nowNanos;
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Value("${foodndeliv.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${foodndeliv.admission.rate-per-second:20}")
+    private double defaultRatePerSecond;
+
+    @Value("${foodndeliv.admission.burst:40}")
+    private int burst;
+
+    @Value("${foodndeliv.admission.max-wait-ms:100}")
+    private long maxWaitMs;
+
+    @Value("${foodndeliv.admission.max-restaurants:10000}")
+    private int maxRestaurants;
+
+    @Value("${foodndeliv.admission.idle-evict-ms:600000}")
+    private long idleEvictMs;
+
+    // restaurantId=ratePerSecond pairs, comma separated
+    @Value("${foodndeliv.admission.restaurant-rates:}")
+    private String restaurantRatesProperty;
+
+    private final Map<Long, Double> restaurantRates = new HashMap<>();
+    private final ConcurrentHashMap<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile Bucket overflow;
+
+    @PostConstruct
+    public void init() {
+        for (String pair : restaurantRatesProperty.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] parts = pair.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("foodndeliv.admission.restaurant-rates: expected restaurantId=rate, got '" + pair + "'");
+            }
+            restaurantRates.put(Long.valueOf(parts[0].trim()), Double.valueOf(parts[1].trim()));
+        }
+        logger.info("Order admission control {}: {}/s per restaurant (burst {}, max wait {} ms), {} override(s)",
+                enabled ? "enabled" : "disabled", defaultRatePerSecond, burst, maxWaitMs, restaurantRates.size());
+    }
+
+    /**
+     * Admits one order for the restaurant, waiting up to max-wait-ms for a token.
+     * @throws TooManyRequestsException if the restaurant is over its rate.
+     */
+    public void admit(Long restaurantId) {
+        admit(restaurantId, TimeUnit.MILLISECONDS.toNanos(maxWaitMs));
+    }
+
+    /**
+     * Admits one order for the restaurant only if a token is available right now (bulk creation,
+     * where waiting would hold the batch's transaction open).
+     * @throws TooManyRequestsException if the restaurant is over its rate.
+     */
+    public void admitNow(Long restaurantId) {
+        admit(restaurantId, 0L);
+    }
+
+    private void admit(Long restaurantId, long maxWaitNanos) {
+        if (!enabled || restaurantId == null) {
+            return; // a missing restaurant is reported by order validation
+        }
+        long now = System.nanoTime();
+        Bucket bucket = bucketFor(restaurantId, now);
+        if (bucket == null) {
+            return; // unknown restaurant: reported by order validation
+        }
+        bucket.lastUsedNanos = now;
+        long wait = bucket.tokens.tryAcquire(now, maxWaitNanos);
+
+        if (wait < 0) {
+            bucket.rejected.increment();
+            long retryAfterSeconds = Math.max(1L, (bucket.tokens.nanosUntilAvailable(now) + 999_999_999L) / 1_000_000_000L);
+            logger.debug("Order for restaurant ID: {} refused, retry after {} s", restaurantId, retryAfterSeconds);
+            throw new TooManyRequestsException("Restaurant " + restaurantId
+                    + " is receiving too many orders; retry after " + retryAfterSeconds + " s.", retryAfterSeconds);
+        }
+        if (wait == 0) {
+            bucket.admitted.increment();
+            return;
+        }
+
+        bucket.queued.increment();
+        try {
+            Thread.sleep(Duration.ofNanos(wait)); // the token is reserved for us
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Forgets a deleted restaurant's bucket and meters.
+     */
+    public void restaurantDeleted(Long restaurantId) {
+        Bucket bucket = buckets.remove(restaurantId);
+        if (bucket != null) {
+            removeMeters(bucket);
+        }
+    }
+
+    /**
+     * Drops buckets that are full and have not been used for idle-evict-ms, with their meters.
+     * An order racing with the eviction may still take its token from the dropped bucket; the
+     * restaurant's next order then starts a fresh (full) bucket, so at most one extra order gets through.
+     */
+    @Scheduled(fixedDelayString = "${foodndeliv.admission.idle-evict-ms:600000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+        int evicted = 0;
+        for (Long restaurantId : buckets.keySet()) {
+            Bucket[] removed = new Bucket[1];
+            buckets.computeIfPresent(restaurantId, (id, bucket) -> {
+                if (now - bucket.lastUsedNanos < idleNanos || !bucket.tokens.isFull(now)) {
+                    return bucket;
+                }
+                removed[0] = bucket;
+                return null;
+            });
+            if (removed[0] != null) {
+                removeMeters(removed[0]);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Order admission control dropped {} idle restaurant bucket(s)", evicted);
+        }
+    }
+
+    // Null for a restaurant that does not exist; the lookup only runs when a bucket is created and
+    // is served from the second-level cache for known restaurants
+    private Bucket bucketFor(Long restaurantId, long now) {
+        Bucket bucket = buckets.get(restaurantId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (!restaurantRates.containsKey(restaurantId) && restaurantRepository.findById(restaurantId).isEmpty()) {
+            return null;
+        }
+        if (buckets.size() >= maxRestaurants && !restaurantRates.containsKey(restaurantId)) {
+            Bucket shared = overflow;
+            if (shared == null) {
+                synchronized (this) {
+                    if (overflow == null) {
+                        logger.warn("Order admission control is tracking {} restaurants; further ones share one bucket", maxRestaurants);
+                        overflow = newBucket(OVERFLOW_TAG, defaultRatePerSecond, now);
+                    }
+                    shared = overflow;
+                }
+            }
+            return shared;
+        }
+        return buckets.computeIfAbsent(restaurantId,
+                id -> newBucket(id.toString(), restaurantRates.getOrDefault(id, defaultRatePerSecond), now));
+    }
+
+    private Bucket newBucket(String tag, double rate, long now) {
+        return new Bucket(new TokenBucket(rate, burst, now),
+                counter(tag, "admitted"), counter(tag, "queued"), counter(tag, "rejected"), now);
+    }
+
+    private void removeMeters(Bucket bucket) {
+        meterRegistry.remove(bucket.admitted);
+        meterRegistry.remove(bucket.queued);
+        meterRegistry.remove(bucket.rejected);
+    }
+
+    private Counter counter(String restaurant, String outcome) {
+        return Counter.builder("foodndeliv.orders.admission")
+                .description("Order creations by admission outcome")
+                .tag("restaurant", restaurant)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.OrderRequestDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.mapper.OrderMapper;
+import com.example.foodndeliv.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for order creation (opt-in, foodndeliv.orders.group-commit.enabled=true).
+ * Concurrent createOrder calls are queued and a few committer threads write them in micro-batches:
+ * a batch closes when it is full or when its oldest order has waited max-delay-ms, and is saved in
+ * one transaction with JDBC-batched inserts, so a flash sale pays one commit (one WAL flush) per
+ * batch instead of one per order. Every caller still gets its own response or error:
+ * an invalid order fails alone, and if the database rejects the batch its orders are retried one
+ * at a time through OrderService. When the queue is full, callers create their order directly.
+ */
+@Service
+@ConditionalOnProperty(name = "foodndeliv.orders.group-commit.enabled", havingValue = "true")
+public class OrderGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderGroupCommitter.class);
+
+    private record PendingOrder(OrderRequestDTO request, long enqueuedAtNanos, CompletableFuture<OrderResponseDTO> result) {
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${foodndeliv.orders.group-commit.max-batch-size:64}")
+    private int maxBatchSize;
+
+    @Value("${foodndeliv.orders.group-commit.max-delay-ms:2}")
+    private long maxDelayMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingOrder> queue;
+    private final List<Thread> committers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public OrderGroupCommitter(PlatformTransactionManager transactionManager,
+                               @Value("${foodndeliv.orders.group-commit.queue-capacity:2048}") int queueCapacity,
+                               @Value("${foodndeliv.orders.group-commit.committers:2}") int committerCount) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 1; i <= committerCount; i++) {
+            Thread thread = new Thread(this::run, "order-group-commit-" + i);
+            thread.setDaemon(true);
+            committers.add(thread);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        committers.forEach(Thread::start);
+        logger.info("Order group commit enabled: {} committer(s), batches of up to {} orders or {} ms",
+                committers.size(), maxBatchSize, maxDelayMs);
+    }
+
+    /**
+     * Creates an order as part of the next micro-batch and waits until that batch has committed.
+     * Same contract as OrderService.createOrder.
+     * @throws NoSuchElementException if the customer or restaurant does not exist.
+     * @throws IllegalArgumentException if the order is invalid.
+     */
+    public OrderResponseDTO createOrder(OrderRequestDTO request) {
+        PendingOrder pending = new PendingOrder(request, System.nanoTime(), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            // Saturated or shutting down: queueing would only add latency
+            return orderService.createOrder(request);
+        }
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order could not be created: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            List<PendingOrder> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return; // whatever is still queued is created by shutdown()
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+            }
+        }
+    }
+
+    // Blocks for the first order, then collects more until the batch is full or the first order's delay is up
+    private List<PendingOrder> nextBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - batch.size());
+
+        long deadline = first.enqueuedAtNanos() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        while (batch.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            PendingOrder next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+        }
+        return batch;
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        long startedAt = System.nanoTime();
+        try {
+            OrderResponseDTO[] responses = transactionTemplate.execute(status -> {
+                OrderResponseDTO[] created = new OrderResponseDTO[batch.size()];
+                List<Order> orders = new ArrayList<>(batch.size());
+                List<Integer> indexes = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        orders.add(orderService.prepareOrder(batch.get(i).request()));
+                        indexes.add(i);
+                    } catch (IllegalArgumentException | NoSuchElementException e) {
+                        batch.get(i).result().completeExceptionally(e); // nothing was written for it
+                    }
+                }
+                orderRepository.saveAll(orders);
+                entityManager.flush();
+                for (int k = 0; k < orders.size(); k++) {
+                    created[indexes.get(k)] = orderMapper.toResponse(orders.get(k));
+                }
+                return created;
+            });
+
+            // Only now are the orders durable
+            for (int i = 0; i < batch.size(); i++) {
+                if (responses[i] != null) {
+                    batch.get(i).result().complete(responses[i]);
+                }
+            }
+            logger.debug("Group-committed {} order(s) in {} ms", batch.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Group commit of {} order(s) rolled back ({}); creating them one by one", batch.size(), e.getMessage());
+            createOneByOne(batch);
+        }
+    }
+
+    private void createOneByOne(List<PendingOrder> batch) {
+        for (PendingOrder pending : batch) {
+            if (pending.result().isDone()) {
+                continue;
+            }
+            try {
+                pending.result().complete(orderService.createOrder(pending.request()));
+            } catch (RuntimeException e) {
+                pending.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false; // committers notice within one poll interval and finish the queue
+        for (Thread committer : committers) {
+            try {
+                committer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Orders queued after the committers stopped
+        List<PendingOrder> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        createOneByOne(leftover);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.OrderRequestDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.IdempotencyKey;
+import com.example.foodndeliv.exception.ConflictException;
+import com.example.foodndeliv.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes order creation safe to retry with an Idempotency-Key header.
+ * The first request with a key creates the order and records the key and its response in the same
+ * transaction; repeats get that original response back without creating anything.
+ * Lookups go through a bounded in-memory cache of recent keys first, then the idempotency_keys table.
+ * Concurrent duplicates on this instance wait for the in-flight first request; duplicates on other
+ * instances wait on the first request's uncommitted key row (see IdempotencyKeyRepository.claim).
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredResponse(String requestHash, OrderResponseDTO response, Instant createdAt) {
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodndeliv.idempotency.retention:PT24H}")
+    private Duration retention;
+
+    @Value("${foodndeliv.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Recently completed keys, least recently used evicted first
+    private final Map<String, StoredResponse> recent;
+
+    // Keys whose first request is running on this instance
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(PlatformTransactionManager transactionManager,
+                                   @Value("${foodndeliv.idempotency.max-cached-keys:10000}") int maxCachedKeys) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxCachedKeys;
+            }
+        });
+    }
+
+    /**
+     * The original response for a key whose first request has already completed, so that a retry is answered
+     * before admission control or any other work. Empty for a new key or one whose first request is still running.
+     * @throws IllegalArgumentException if the key is blank or too long.
+     * @throws ConflictException if the key was used for a different request.
+     */
+    public Optional<OrderResponseDTO> findCompleted(String key, OrderRequestDTO request) {
+        checkKey(key);
+        StoredResponse stored = recent.get(key);
+        if (stored == null) {
+            stored = idempotencyKeyRepository.findById(key)
+                    .filter(existing -> existing.getResponse() != null)
+                    .map(existing -> new StoredResponse(existing.getRequestHash(), fromJson(existing.getResponse()),
+                            existing.getCreatedAt()))
+                    .orElse(null);
+            if (stored != null) {
+                recent.put(key, stored);
+            }
+        }
+        if (stored == null || !stored.createdAt().plus(retention).isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(replay(key, stored, hash(request)));
+    }
+
+    /**
+     * Creates an order once per idempotency key.
+     * @param key The client's Idempotency-Key.
+     * @param request The order to create.
+     * @return The response of the first request made with this key.
+     * @throws IllegalArgumentException if the key is blank or too long.
+     * @throws ConflictException if the key was used for a different request, or the first request
+     *                           with it is still running after the wait timeout.
+     */
+    public OrderResponseDTO createOrder(String key, OrderRequestDTO request) {
+        checkKey(key);
+        String requestHash = hash(request);
+
+        while (true) {
+            StoredResponse stored = recent.get(key);
+            if (stored != null && stored.createdAt().plus(retention).isAfter(Instant.now())) {
+                return replay(key, stored, requestHash);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                StoredResponse first = await(key, running);
+                if (first != null) {
+                    return replay(key, first, requestHash);
+                }
+                continue; // the first request failed and recorded nothing; run this one instead
+            }
+
+            try {
+                StoredResponse result = createOnce(key, request, requestHash);
+                recent.put(key, result);
+                mine.complete(result);
+                return replay(key, result, requestHash);
+            } catch (RuntimeException e) {
+                mine.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+    }
+
+    /**
+     * Removes keys older than the retention period; a retry after that creates a new order.
+     */
+    @Scheduled(fixedDelayString = "${foodndeliv.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpiredKeys() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired idempotency key(s).", deleted);
+        }
+    }
+
+    private StoredResponse createOnce(String key, OrderRequestDTO request, String requestHash) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            if (idempotencyKeyRepository.claim(key, requestHash, now) == 0) {
+                // Recorded by an earlier request, possibly on another instance
+                IdempotencyKey existing = idempotencyKeyRepository.findById(key)
+                        .orElseThrow(() -> new ConflictException("Idempotency-Key '" + key + "' is being cleaned up; retry."));
+                logger.info("Idempotency-Key '{}' already used for order ID: {}", key, existing.getOrderId());
+                return new StoredResponse(existing.getRequestHash(), fromJson(existing.getResponse()), existing.getCreatedAt());
+            }
+
+            OrderResponseDTO response = orderService.createOrder(request);
+            idempotencyKeyRepository.complete(key, response.getId(), toJson(response));
+            return new StoredResponse(requestHash, response, now);
+        });
+    }
+
+    private StoredResponse await(String key, CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with Idempotency-Key '" + key + "' is still in progress; retry later.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Idempotency-Key '" + key + "'.", e);
+        } catch (ExecutionException e) {
+            return null; // never completed exceptionally, but treat it like a failed first request
+        }
+    }
+
+    private static OrderResponseDTO replay(String key, StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new ConflictException("Idempotency-Key '" + key + "' was already used for a different request.");
+        }
+        return stored.response();
+    }
+
+    private static void checkKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+    }
+
+    private String hash(OrderRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Order request cannot be fingerprinted: " + e.getMessage(), e);
+        }
+    }
+
+    private String toJson(OrderResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order response cannot be stored: " + e.getMessage(), e);
+        }
+    }
+
+    private OrderResponseDTO fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored order response cannot be read: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.OrderLineDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.OrderLine;
+import com.example.foodndeliv.entity.Restaurant;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Validates requested order lines and prices them server-side from the MenuCatalog.
+ * Pure in-memory work (no database access once the restaurant's menu is cached),
+ * shared by every order creation path.
+ */
+@Component
+public class OrderPricer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPricer.class);
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Builds the order's lines from the requested ones and sets its total price.
+     * The order's restaurant must already be set.
+     * @param order The order being created.
+     * @param requestedLines Lines as sent by the client.
+     * @return The calculated total price.
+     * @throws IllegalArgumentException if there are no lines, or a line has no product name or a non-positive quantity.
+     * @throws NoSuchElementException if a product is not on the restaurant's menu or not available.
+     */
+    public double priceLines(Order order, List<OrderLineDTO> requestedLines) {
+        if (requestedLines == null || requestedLines.isEmpty()) {
+            throw new IllegalArgumentException("Order must have at least one order line.");
+        }
+
+        Restaurant restaurant = order.getRestaurant();
+        List<OrderLine> processedOrderLines = new ArrayList<>(requestedLines.size());
+        double calculatedTotalPrice = 0.0;
+
+        for (OrderLineDTO orderLineDto : requestedLines) {
+            if (orderLineDto.getProductName() == null || orderLineDto.getProductName().trim().isEmpty()) {
+                throw new IllegalArgumentException("Product name cannot be empty in an order line.");
+            }
+            if (orderLineDto.getQuantity() == null || orderLineDto.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be a positive number for product: " + orderLineDto.getProductName());
+            }
+
+            // Priced from the in-memory catalog instead of one query per line
+            MenuCatalog.Entry menuItem = menuCatalog
+                .findAvailable(restaurant.getId(), orderLineDto.getProductName())
+                .orElseThrow(() -> {
+                    logger.warn("Product '{}' not found/available at restaurant '{}' (ID: {})", orderLineDto.getProductName(), restaurant.getName(), restaurant.getId());
+                    return new NoSuchElementException("Product '" + orderLineDto.getProductName() +
+                                                        "' not found or not available at restaurant '" + restaurant.getName() + "'.");
+                });
+
+            OrderLine orderLineEntity = new OrderLine();
+            orderLineEntity.setProductName(menuItem.productName());
+            orderLineEntity.setQuantity(orderLineDto.getQuantity());
+            orderLineEntity.setPrice(menuItem.price()); // SERVER-SIDE PRICE
+            orderLineEntity.setOrder(order);
+
+            processedOrderLines.add(orderLineEntity);
+            calculatedTotalPrice += (orderLineEntity.getQuantity() * orderLineEntity.getPrice());
+        }
+
+        order.setOrderLines(processedOrderLines);
+        order.setTotalPrice(calculatedTotalPrice);
+
+        // Tagged by initial state only (OPEN/CONFIRMED), never by restaurant or customer
+        DistributionSummary.builder("foodndeliv.order.lines")
+                .description("Order lines per created order")
+                .tag("state", String.valueOf(order.getState()))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100.0)
+                .register(meterRegistry)
+                .record(processedOrderLines.size());
+        return calculatedTotalPrice;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds orders written through the Spring Data REST endpoint (/api/orders) into DispatchService and
+ * SalesAnalyticsService, like OrderService does. Data REST has already committed the change when these run;
+ * the state machine checks before the write are in OrderStateRepositoryEventHandler.
+ */
+@Component
+@RepositoryEventHandler
+public class OrderRepositoryEventHandler {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void handleOrderSaved(Order order) {
+        if (DispatchService.isDispatchable(order.getState()) && order.getRider() == null) {
+            dispatchService.orderReady(order.getId());
+        }
+    }
+
+    @HandleAfterCreate
+    public void handleOrderCreated(Order order) {
+        salesAnalyticsService.orderCreated(order);
+    }
+}
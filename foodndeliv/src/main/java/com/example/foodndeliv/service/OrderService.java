@@ -3,24 +3,39 @@ package com.example.foodndeliv.service;
 import com.example.foodndeliv.repository.*;
 import com.example.foodndeliv.dto.*;
 import com.example.foodndeliv.entity.*;
+import com.example.foodndeliv.mapper.OrderMapper;
 import com.example.foodndeliv.types.OrderState;
-import org.modelmapper.ModelMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
+    // Orders written per export chunk; the persistence context is cleared after each one
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     @Autowired
     private OrderRepository orderRepository;
 
@@ -31,96 +46,202 @@ public class OrderService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private MenuItemRepository menuItemRepository;
+    private OrderPricer orderPricer;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // foodndeliv.order.create.phase{phase}: where createOrder spends its time
+    private Timer lookupTimer;
+    private Timer priceTimer;
+    private Timer dispatchTimer;
+    private Timer saveTimer;
+    private Timer mapTimer;
+
+    @PostConstruct
+    public void registerTimers() {
+        lookupTimer = phaseTimer("lookup");
+        priceTimer = phaseTimer("price");
+        dispatchTimer = phaseTimer("dispatch");
+        saveTimer = phaseTimer("save");
+        mapTimer = phaseTimer("map");
+    }
 
     @Transactional
     public OrderResponseDTO createOrder(OrderRequestDTO orderRequestDTO) {
+        Order order = prepareOrder(orderRequestDTO);
+        // Flushed here so the INSERTs, which pooled IDs otherwise defer to commit, count towards "save"
+        Order savedOrder = saveTimer.record(() -> orderRepository.saveAndFlush(order));
+        logger.info("Order created successfully with ID: {}", savedOrder.getId());
+        return mapTimer.record(() -> orderMapper.toResponse(savedOrder));
+    }
+
+    /**
+     * Builds, prices and (if dispatchable) assigns a rider to a new order without saving it.
+     * Must run inside the caller's transaction; lets batch writers such as OrderGroupCommitter
+     * reject one order without marking their shared transaction rollback-only.
+     * @return The unsaved order, with its total price set.
+     * @throws NoSuchElementException if the customer or restaurant does not exist.
+     * @throws IllegalArgumentException if the state is not initial or an order line is invalid.
+     */
+    public Order prepareOrder(OrderRequestDTO orderRequestDTO) {
         logger.info("Creating order for customer ID: {} at restaurant ID: {}", orderRequestDTO.getCustomerId(), orderRequestDTO.getRestaurantId());
         Order order = new Order();
 
-        Customer customer = customerRepository.findById(orderRequestDTO.getCustomerId())
-                .orElseThrow(() -> {
-                    logger.warn("Customer not found with ID: {}", orderRequestDTO.getCustomerId());
-                    return new NoSuchElementException("Customer not found with ID: " + orderRequestDTO.getCustomerId());
-                });
-        Restaurant restaurant = restaurantRepository.findById(orderRequestDTO.getRestaurantId())
-                .orElseThrow(() -> {
-                    logger.warn("Restaurant not found with ID: {}", orderRequestDTO.getRestaurantId());
-                    return new NoSuchElementException("Restaurant not found with ID: " + orderRequestDTO.getRestaurantId());
-                });
-
-        order.setCustomer(customer);
-        order.setRestaurant(restaurant);
+        Timer.Sample lookup = Timer.start(meterRegistry);
+        try {
+            Customer customer = customerRepository.findById(orderRequestDTO.getCustomerId())
+                    .orElseThrow(() -> {
+                        logger.warn("Customer not found with ID: {}", orderRequestDTO.getCustomerId());
+                        return new NoSuchElementException("Customer not found with ID: " + orderRequestDTO.getCustomerId());
+                    });
+            Restaurant restaurant = restaurantRepository.findById(orderRequestDTO.getRestaurantId())
+                    .orElseThrow(() -> {
+                        logger.warn("Restaurant not found with ID: {}", orderRequestDTO.getRestaurantId());
+                        return new NoSuchElementException("Restaurant not found with ID: " + orderRequestDTO.getRestaurantId());
+                    });
+            order.setCustomer(customer);
+            order.setRestaurant(restaurant);
+        } finally {
+            lookup.stop(lookupTimer);
+        }
 
         if (orderRequestDTO.getState() != null) {
+            // Later states are only reachable through OrderTransitionService
+            if (!orderRequestDTO.getState().isInitial()) {
+                throw new IllegalArgumentException("New orders must be OPEN or CONFIRMED, not " + orderRequestDTO.getState() + ".");
+            }
             order.setState(orderRequestDTO.getState());
         } else {
             order.setState(OrderState.OPEN);
         }
 
-        List<OrderLine> processedOrderLines = new ArrayList<>();
-        double calculatedTotalPrice = 0.0;
+        priceTimer.record(() -> orderPricer.priceLines(order, orderRequestDTO.getOrderLines()));
 
-        if (orderRequestDTO.getOrderLines() == null || orderRequestDTO.getOrderLines().isEmpty()) {
-            throw new IllegalArgumentException("Order must have at least one order line.");
+        if (DispatchService.isDispatchable(order.getState())) {
+            dispatchTimer.record(() -> dispatchService.assignRider(order));
         }
+        salesAnalyticsService.orderCreated(order);
+        return order;
+    }
 
-        for (OrderLineDTO orderLineDto : orderRequestDTO.getOrderLines()) {
-            if (orderLineDto.getProductName() == null || orderLineDto.getProductName().trim().isEmpty()) {
-                throw new IllegalArgumentException("Product name cannot be empty in an order line.");
+    /**
+     * Retrieves one keyset page of orders, ordered by ID.
+     * @param cursor Cursor from the previous page, or null for the first page.
+     * @param limit Requested page size; capped by the server maximum.
+     * @return The page of orders and the cursor for the next one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderResponseDTO> getOrdersPage(String cursor, Integer limit) {
+        int pageSize = keysetPaging.pageSize(limit);
+        long afterId = keysetPaging.afterId(cursor);
+        logger.info("Fetching orders page after ID: {} (size {})", afterId, pageSize);
+        List<Order> orders = orderRepository.findByIdGreaterThanOrderByIdAsc(afterId, keysetPaging.probe(pageSize));
+        return keysetPaging.toPage(orders, pageSize, Order::getId,
+                orderMapper::toResponse); // totalPrice is persisted on the order
+    }
+
+    /**
+     * Lightweight keyset page of orders (id, customer, restaurant, state, total) that never touches order_lines.
+     * @param cursor Cursor from the previous page, or null for the first page.
+     * @param limit Requested page size; capped by the server maximum.
+     * @return The page of order summaries and the cursor for the next one.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<OrderSummaryDTO> getOrderSummariesPage(String cursor, Integer limit) {
+        int pageSize = keysetPaging.pageSize(limit);
+        long afterId = keysetPaging.afterId(cursor);
+        logger.info("Fetching order summaries page after ID: {} (size {})", afterId, pageSize);
+        List<OrderSummaryDTO> summaries = orderRepository.findSummariesAfter(afterId, keysetPaging.probe(pageSize));
+        return keysetPaging.toPage(summaries, pageSize, OrderSummaryDTO::getId, summary -> summary);
+    }
+
+    /**
+     * Streams every order with its lines to the given output as newline-delimited JSON.
+     * Orders are read through a database cursor and written in chunks of {@value #EXPORT_CHUNK_SIZE};
+     * each chunk's lines are loaded with one query and the persistence context is cleared afterwards,
+     * so heap use stays constant regardless of table size.
+     * @param out The response stream to write to.
+     * @return The number of orders written.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream out) throws IOException {
+        logger.info("Starting NDJSON export of all orders");
+        ObjectWriter writer = objectMapper.writerFor(OrderExportDTO.class);
+        List<Order> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        long exported = 0;
+
+        try (Stream<Order> orders = orderRepository.streamAllOrderedById()) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exported += writeExportChunk(chunk, writer, out);
+                }
             }
-            if (orderLineDto.getQuantity() == null || orderLineDto.getQuantity() <= 0) {
-                throw new IllegalArgumentException("Quantity must be a positive number for product: " + orderLineDto.getProductName());
+            if (!chunk.isEmpty()) {
+                exported += writeExportChunk(chunk, writer, out);
             }
-
-            MenuItem menuItem = menuItemRepository
-                .findByRestaurantIdAndProductNameIgnoreCaseAndIsAvailableTrue(restaurant.getId(), orderLineDto.getProductName())
-                .orElseThrow(() -> {
-                    logger.warn("Product '{}' not found/available at restaurant '{}' (ID: {})", orderLineDto.getProductName(), restaurant.getName(), restaurant.getId());
-                    return new NoSuchElementException("Product '" + orderLineDto.getProductName() +
-                                                        "' not found or not available at restaurant '" + restaurant.getName() + "'.");
-                });
-
-            OrderLine orderLineEntity = new OrderLine();
-            orderLineEntity.setProductName(menuItem.getProductName());
-            orderLineEntity.setQuantity(orderLineDto.getQuantity());
-            orderLineEntity.setPrice(menuItem.getPrice()); // SERVER-SIDE PRICE
-            orderLineEntity.setOrder(order);
-
-            processedOrderLines.add(orderLineEntity);
-            calculatedTotalPrice += (orderLineEntity.getQuantity() * orderLineEntity.getPrice());
         }
 
-        order.setOrderLines(processedOrderLines);
-        // to store totalPrice in the Order entity, uncomment:
-        // order.setTotalPrice(calculatedTotalPrice); 
+        logger.info("NDJSON export finished, {} orders written", exported);
+        return exported;
+    }
 
-        Order savedOrder = orderRepository.save(order);
-        logger.info("Order created successfully with ID: {}", savedOrder.getId());
+    private Timer phaseTimer(String phase) {
+        return Timer.builder("foodndeliv.order.create.phase")
+                .description("Time spent in each phase of order creation")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-        OrderResponseDTO responseDTO = modelMapper.map(savedOrder, OrderResponseDTO.class);
-        responseDTO.setTotalPrice(calculatedTotalPrice); // Ensure DTO has the calculated total
+    private int writeExportChunk(List<Order> chunk, ObjectWriter writer, OutputStream out) throws IOException {
+        List<Long> orderIds = chunk.stream().map(Order::getId).toList();
+        Map<Long, List<OrderLineDTO>> linesByOrderId = new HashMap<>();
+        for (OrderLine line : orderRepository.findLinesByOrderIds(orderIds)) {
+            OrderLineDTO lineDto = new OrderLineDTO();
+            lineDto.setProductName(line.getProductName());
+            lineDto.setQuantity(line.getQuantity());
+            lineDto.setPrice(line.getPrice());
+            linesByOrderId.computeIfAbsent(line.getOrder().getId(), id -> new ArrayList<>()).add(lineDto);
+        }
 
-        return responseDTO;
-    }
+        for (Order order : chunk) {
+            OrderExportDTO dto = new OrderExportDTO();
+            dto.setId(order.getId());
+            dto.setCustomerId(order.getCustomer().getId()); // proxy ID, no extra select
+            dto.setRestaurantId(order.getRestaurant().getId());
+            dto.setState(order.getState());
+            dto.setTotalPrice(order.getTotalPrice());
+            dto.setOrderDetails(order.getOrderDetails());
+            dto.setOrderLines(linesByOrderId.getOrDefault(order.getId(), List.of()));
+            out.write(writer.writeValueAsBytes(dto));
+            out.write('\n');
+        }
+        out.flush();
 
-    @Transactional(readOnly = true)
-    public List<OrderResponseDTO> getAllOrders() {
-        logger.info("Fetching all orders");
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream().map(order -> {
-            OrderResponseDTO dto = modelMapper.map(order, OrderResponseDTO.class);
-            double orderTotalPrice = 0.0;
-            if (order.getOrderLines() != null) {
-                orderTotalPrice = order.getOrderLines().stream()
-                                    .mapToDouble(line -> line.getPrice() * line.getQuantity())
-                                    .sum();
-            }
-            dto.setTotalPrice(orderTotalPrice);
-            return dto;
-        }).collect(Collectors.toList());
+        int written = chunk.size();
+        chunk.clear();
+        entityManager.clear(); // detach everything read so far so the session does not grow
+        return written;
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleBeforeCreate;
+import org.springframework.data.rest.core.annotation.HandleBeforeSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps order writes through the Spring Data REST endpoint (/api/orders) from bypassing the order state machine.
+ * Concurrent direct writes are rejected by the @Version check on save.
+ */
+@Component
+@RepositoryEventHandler
+public class OrderStateRepositoryEventHandler {
+
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+
+    @HandleBeforeCreate
+    public void handleOrderCreate(Order order) {
+        orderTransitionService.checkDirectWrite(order, true);
+    }
+
+    @HandleBeforeSave
+    public void handleOrderSave(Order order) {
+        orderTransitionService.checkDirectWrite(order, false);
+    }
+}
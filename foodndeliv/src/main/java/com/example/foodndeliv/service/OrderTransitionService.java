@@ -0,0 +1,205 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.BulkOrderTransitionRequestDTO;
+import com.example.foodndeliv.dto.OrderStateDTO;
+import com.example.foodndeliv.dto.OrderTransitionRequestDTO;
+import com.example.foodndeliv.dto.OrderTransitionResultDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.exception.ConflictException;
+import com.example.foodndeliv.repository.OrderRepository;
+import com.example.foodndeliv.types.OrderState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Applies the order state machine (see OrderState). Every transition is a single conditional
+ * UPDATE ... WHERE state = ? AND version = ? against the state and version just read, so
+ * concurrent transitions (a restaurant accepting while the customer cancels) can never both win
+ * and no row lock is held between the read and the write. The loser sees 409 Conflict, or is
+ * retried when the client did not pin a version.
+ * Side effects follow the new state: a rider is released once their order is final, and an
+ * order that has just become CONFIRMED is dispatched once the transition commits.
+ */
+@Service
+public class OrderTransitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTransitionService.class);
+
+    private static final String TRANSITION_SQL =
+            "UPDATE orders SET state = ?, version = version + 1 WHERE id = ? AND state = ? AND version = ?";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foodndeliv.orders.transition-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${foodndeliv.orders.max-bulk-transition:500}")
+    private int maxBulkSize;
+
+    /**
+     * Moves one order to a new state.
+     * @param orderId The ID of the order.
+     * @param request Target state and, optionally, the version the client last saw.
+     * @return The order's state and version after the transition.
+     * @throws NoSuchElementException if the order does not exist.
+     * @throws ConflictException if the transition is not allowed from the order's current state,
+     *                           or the order changed concurrently (expected version mismatch).
+     */
+    @Transactional
+    public OrderTransitionResultDTO transition(Long orderId, OrderTransitionRequestDTO request) {
+        OrderState target = request.getTargetState();
+        Long expectedVersion = request.getExpectedVersion();
+        logger.info("Transitioning order ID: {} to {} (expected version: {})", orderId, target, expectedVersion);
+
+        for (int attempt = 1; ; attempt++) {
+            OrderStateDTO current = orderRepository.findStates(List.of(orderId)).stream().findFirst()
+                    .orElseThrow(() -> {
+                        logger.warn("Order not found with ID: {}", orderId);
+                        return new NoSuchElementException("Order not found with ID: " + orderId);
+                    });
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw new ConflictException("Order " + orderId + " was modified concurrently (expected version "
+                        + expectedVersion + ", current version " + current.getVersion() + ").");
+            }
+            if (!current.getState().canTransitionTo(target)) {
+                throw new ConflictException("Order " + orderId + " cannot move from "
+                        + current.getState() + " to " + target + ".");
+            }
+
+            if (jdbcTemplate.update(TRANSITION_SQL, target.name(), orderId,
+                    current.getState().name(), current.getVersion()) == 1) {
+                afterTransition(current, target);
+                logger.info("Order ID: {} moved from {} to {}", orderId, current.getState(), target);
+                return new OrderTransitionResultDTO(orderId, true, target, current.getVersion() + 1, null);
+            }
+
+            // Lost a race: with a pinned version that is final, otherwise re-read and re-check
+            if (expectedVersion != null || attempt >= maxAttempts) {
+                throw new ConflictException("Order " + orderId + " was modified concurrently; read it again and retry.");
+            }
+            logger.debug("Order ID: {} changed during transition to {}, retrying (attempt {})", orderId, target, attempt);
+        }
+    }
+
+    /**
+     * Moves many orders to the same state with one read and one JDBC batch of conditional updates.
+     * Each order succeeds or fails on its own; failures are reported, not thrown.
+     * @return One result per distinct order ID, in request order.
+     * @throws IllegalArgumentException if the request holds more orders than allowed.
+     */
+    @Transactional
+    public List<OrderTransitionResultDTO> transitionAll(BulkOrderTransitionRequestDTO request) {
+        OrderState target = request.getTargetState();
+        Set<Long> orderIds = new LinkedHashSet<>(request.getOrderIds());
+        orderIds.remove(null);
+        if (orderIds.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " orders can be transitioned per request.");
+        }
+        logger.info("Transitioning {} order(s) to {} (restaurant ID: {})", orderIds.size(), target, request.getRestaurantId());
+
+        Map<Long, OrderStateDTO> currentById = new HashMap<>();
+        for (OrderStateDTO current : orderRepository.findStates(orderIds)) {
+            currentById.put(current.getOrderId(), current);
+        }
+
+        Map<Long, OrderTransitionResultDTO> results = new HashMap<>();
+        List<OrderStateDTO> candidates = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            OrderStateDTO current = currentById.get(orderId);
+            if (current == null
+                    || (request.getRestaurantId() != null && !request.getRestaurantId().equals(current.getRestaurantId()))) {
+                results.put(orderId, new OrderTransitionResultDTO(orderId, false, null, null,
+                        "Order not found with ID: " + orderId));
+            } else if (!current.getState().canTransitionTo(target)) {
+                results.put(orderId, new OrderTransitionResultDTO(orderId, false, current.getState(), current.getVersion(),
+                        "Cannot move from " + current.getState() + " to " + target + "."));
+            } else {
+                candidates.add(current);
+                updates.add(new Object[]{target.name(), orderId, current.getState().name(), current.getVersion()});
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(TRANSITION_SQL, updates);
+            for (int i = 0; i < candidates.size(); i++) {
+                OrderStateDTO current = candidates.get(i);
+                if (counts[i] == 1) {
+                    afterTransition(current, target);
+                    results.put(current.getOrderId(), new OrderTransitionResultDTO(current.getOrderId(), true, target,
+                            current.getVersion() + 1, null));
+                } else {
+                    results.put(current.getOrderId(), new OrderTransitionResultDTO(current.getOrderId(), false,
+                            current.getState(), current.getVersion(), "Order was modified concurrently; retry."));
+                }
+            }
+        }
+
+        List<OrderTransitionResultDTO> ordered = new ArrayList<>(orderIds.size());
+        long applied = 0;
+        for (Long orderId : orderIds) {
+            OrderTransitionResultDTO result = results.get(orderId);
+            applied += result.isApplied() ? 1 : 0;
+            ordered.add(result);
+        }
+        logger.info("{} of {} order(s) moved to {}", applied, orderIds.size(), target);
+        return ordered;
+    }
+
+    /**
+     * Guards writes that bypass the state machine (Spring Data REST): new orders must start OPEN or CONFIRMED,
+     * and an existing order's state can only change through a transition.
+     * @throws ConflictException if the write would change the state.
+     */
+    public void checkDirectWrite(Order order, boolean creating) {
+        if (creating) {
+            if (order.getState() != null && !order.getState().isInitial()) {
+                throw new ConflictException("New orders must be OPEN or CONFIRMED, not " + order.getState() + ".");
+            }
+            return;
+        }
+        String persistedState;
+        try {
+            persistedState = jdbcTemplate.queryForObject("SELECT state FROM orders WHERE id = ?", String.class, order.getId());
+        } catch (EmptyResultDataAccessException e) {
+            return; // deleted meanwhile; the save itself will fail
+        }
+        if (order.getState() != null && !order.getState().name().equals(persistedState)) {
+            throw new ConflictException("Order state can only be changed through POST /api/ctrl/orders/"
+                    + order.getId() + "/transitions.");
+        }
+    }
+
+    // Runs inside the transition's transaction
+    private void afterTransition(OrderStateDTO before, OrderState target) {
+        if (target.isFinal() && before.getRiderId() != null) {
+            dispatchService.releaseRider(before.getRiderId());
+        }
+        if (DispatchService.isDispatchable(target) && !DispatchService.isDispatchable(before.getState())
+                && before.getRiderId() == null) {
+            Long orderId = before.getOrderId();
+            TransactionHooks.afterCommit(() -> dispatchService.orderReady(orderId));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.ProvisioningStatusDTO;
+import com.example.foodndeliv.entity.ProvisioningTask;
+import com.example.foodndeliv.repository.CustomerRepository;
+import com.example.foodndeliv.repository.ProvisioningTaskRepository;
+import com.example.foodndeliv.repository.RiderRepository;
+import com.example.foodndeliv.types.ProvisioningOperation;
+import com.example.foodndeliv.types.ProvisioningStatus;
+import com.example.foodndeliv.types.ProvisioningSubject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Transactional outbox for Keycloak user provisioning.
+ * Customer and rider changes enqueue a task in their own transaction, so the task exists
+ * if and only if the change committed; ProvisioningWorker claims and runs tasks afterwards.
+ */
+@Service
+public class ProvisioningOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProvisioningOutbox.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private ProvisioningTaskRepository provisioningTaskRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RiderRepository riderRepository;
+
+    @Value("${foodndeliv.provisioning.lease-seconds:120}")
+    private long leaseSeconds;
+
+    /**
+     * Enqueues creation of a Keycloak user. Must be called inside the transaction that saves the subject.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProvisioningTask enqueueCreate(ProvisioningSubject subjectType, Long subjectId, String username,
+                                          String email, String firstName, String lastName) {
+        ProvisioningTask task = newTask(subjectType, subjectId, ProvisioningOperation.CREATE_USER, username, email);
+        task.setFirstName(firstName);
+        task.setLastName(lastName);
+        ProvisioningTask saved = provisioningTaskRepository.save(task);
+        logger.info("Enqueued Keycloak user creation for {} ID: {} (task ID: {})", subjectType, subjectId, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Enqueues deletion of a Keycloak user and cancels any creation for the same subject that has not started.
+     * A creation already in progress is not cancelled; the deletion waits for it (see
+     * ProvisioningTaskRepository.lockDue) and then finds the created user by attribute, username or email.
+     * Must be called inside the transaction that deletes the subject.
+     * @param keycloakUserId The stored Keycloak user ID, or null if the user was never (or not yet) provisioned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProvisioningTask enqueueDelete(ProvisioningSubject subjectType, Long subjectId, String username, String email,
+                                          String keycloakUserId) {
+        int cancelled = provisioningTaskRepository.cancelPending(subjectType, subjectId, Instant.now());
+        if (cancelled > 0) {
+            logger.info("Cancelled {} pending Keycloak task(s) for {} ID: {}", cancelled, subjectType, subjectId);
+        }
+        ProvisioningTask task = newTask(subjectType, subjectId, ProvisioningOperation.DELETE_USER, username, email);
+        task.setKeycloakUserId(keycloakUserId);
+        ProvisioningTask saved = provisioningTaskRepository.save(task);
+        logger.info("Enqueued Keycloak user deletion for {} ID: {} (task ID: {})", subjectType, subjectId, saved.getId());
+        return saved;
+    }
+
+    /**
+     * Claims up to {@code limit} due tasks for this instance: marks them IN_PROGRESS,
+     * counts the attempt and grants a lease. Tasks locked by another instance are skipped.
+     * @return The claimed tasks (detached), oldest first.
+     */
+    @Transactional
+    public List<ProvisioningTask> claimDue(int limit) {
+        Instant now = Instant.now();
+        List<ProvisioningTask> tasks = provisioningTaskRepository.lockDue(now, limit);
+        for (ProvisioningTask task : tasks) {
+            task.setStatus(ProvisioningStatus.IN_PROGRESS);
+            task.setAttempts(task.getAttempts() + 1);
+            task.setLeaseUntil(now.plusSeconds(leaseSeconds));
+            task.setUpdatedAt(now);
+        }
+        return tasks;
+    }
+
+    /**
+     * Marks the task done; for a created user, also stores its Keycloak ID on the customer or rider.
+     */
+    @Transactional
+    public void markSucceeded(ProvisioningTask task, String keycloakUserId) {
+        Instant now = Instant.now();
+        if (!complete(task, ProvisioningStatus.SUCCEEDED, now, null, keycloakUserId, now)
+                || task.getOperation() != ProvisioningOperation.CREATE_USER) {
+            return;
+        }
+        if (task.getSubjectType() == ProvisioningSubject.CUSTOMER) {
+            customerRepository.setKeycloakUserId(task.getSubjectId(), keycloakUserId);
+        } else {
+            riderRepository.setKeycloakUserId(task.getSubjectId(), keycloakUserId);
+        }
+    }
+
+    @Transactional
+    public void markForRetry(ProvisioningTask task, Duration backoff, String error) {
+        Instant now = Instant.now();
+        complete(task, ProvisioningStatus.PENDING, now.plus(backoff), error, null, now);
+    }
+
+    @Transactional
+    public void markFailed(ProvisioningTask task, String error) {
+        Instant now = Instant.now();
+        complete(task, ProvisioningStatus.FAILED, now, error, null, now);
+    }
+
+    /**
+     * Returns the latest provisioning task of a customer or rider.
+     * @throws NoSuchElementException if no task was ever enqueued for the subject.
+     */
+    @Transactional(readOnly = true)
+    public ProvisioningStatusDTO getLatestStatus(ProvisioningSubject subjectType, Long subjectId) {
+        ProvisioningTask task = provisioningTaskRepository.findFirstBySubjectTypeAndSubjectIdOrderByIdDesc(subjectType, subjectId)
+                .orElseThrow(() -> new NoSuchElementException("No provisioning task found for " +
+                        subjectType.name().toLowerCase() + " with ID: " + subjectId));
+        return new ProvisioningStatusDTO(task.getId(), task.getOperation(), task.getStatus(), task.getAttempts(),
+                task.getNextAttemptAt(), task.getLastError(), task.getKeycloakUserId(),
+                task.getCreatedAt(), task.getUpdatedAt());
+    }
+
+    private boolean complete(ProvisioningTask task, ProvisioningStatus status, Instant nextAttemptAt,
+                          String error, String keycloakUserId, Instant now) {
+        int updated = provisioningTaskRepository.complete(task.getId(), task.getAttempts(), status, nextAttemptAt,
+                truncate(error), keycloakUserId, now);
+        if (updated == 0) {
+            // Lease expired and another worker re-claimed the task; its outcome wins
+            logger.warn("Provisioning task ID: {} attempt {} no longer holds its lease; outcome {} discarded",
+                    task.getId(), task.getAttempts(), status);
+            return false;
+        }
+        return true;
+    }
+
+    private static ProvisioningTask newTask(ProvisioningSubject subjectType, Long subjectId,
+                                            ProvisioningOperation operation, String username, String email) {
+        Instant now = Instant.now();
+        ProvisioningTask task = new ProvisioningTask();
+        task.setSubjectType(subjectType);
+        task.setSubjectId(subjectId);
+        task.setOperation(operation);
+        task.setUsername(username);
+        task.setEmail(email);
+        task.setStatus(ProvisioningStatus.PENDING);
+        task.setNextAttemptAt(now);
+        task.setCreatedAt(now);
+        task.setUpdatedAt(now);
+        return task;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.ProvisioningTask;
+import com.example.foodndeliv.types.ProvisioningOperation;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the Keycloak provisioning outbox.
+ * With platform threads (the default) tasks run on a fixed pool of workers; with
+ * spring.threads.virtual.enabled=true each task gets its own virtual thread and concurrency is
+ * bounded only by a semaphore sized to the Keycloak HTTP connection pool, so the pool rather than
+ * the thread count is the limit.
+ * Each poll claims at most as many tasks as there are free permits, so tasks are never
+ * queued in memory (where a crash would strand them until their lease expires).
+ * Failed attempts are retried with exponential backoff and jitter up to a maximum number of attempts.
+ */
+@Component
+public class ProvisioningWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProvisioningWorker.class);
+
+    @Autowired
+    private ProvisioningOutbox provisioningOutbox;
+
+    @Autowired
+    private KeycloakProvisioner keycloakProvisioner;
+
+    @Value("${foodndeliv.provisioning.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${foodndeliv.provisioning.initial-backoff-ms:2000}")
+    private long initialBackoffMs;
+
+    @Value("${foodndeliv.provisioning.max-backoff-ms:300000}")
+    private long maxBackoffMs;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    public ProvisioningWorker(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                              @Value("${foodndeliv.provisioning.workers:4}") int workers,
+                              @Value("${keycloak.http.connection-pool-size:20}") int keycloakConnections) {
+        if (virtualThreads) {
+            this.permits = new Semaphore(keycloakConnections);
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("keycloak-provisioning-", 1).factory());
+        } else {
+            this.permits = new Semaphore(workers);
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "keycloak-provisioning-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        logger.info("Keycloak provisioning runs at most {} task(s) at once on {} threads",
+                permits.availablePermits(), virtualThreads ? "virtual" : "platform");
+    }
+
+    @Scheduled(fixedDelayString = "${foodndeliv.provisioning.poll-interval-ms:500}")
+    public void poll() {
+        int idle = permits.availablePermits();
+        if (idle <= 0) {
+            return;
+        }
+        List<ProvisioningTask> tasks;
+        try {
+            tasks = provisioningOutbox.claimDue(idle);
+        } catch (Exception e) {
+            logger.error("Could not claim provisioning tasks: {}", e.getMessage(), e);
+            return;
+        }
+        for (ProvisioningTask task : tasks) {
+            permits.acquireUninterruptibly(); // only this thread acquires, and it claimed no more than were free
+            executor.execute(() -> {
+                try {
+                    process(task);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    void process(ProvisioningTask task) {
+        try {
+            String keycloakUserId = null;
+            if (task.getOperation() == ProvisioningOperation.CREATE_USER) {
+                keycloakUserId = keycloakProvisioner.createUser(task);
+            } else {
+                keycloakProvisioner.deleteUser(task);
+            }
+            provisioningOutbox.markSucceeded(task, keycloakUserId);
+        } catch (Exception e) {
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            try {
+                if (task.getAttempts() >= maxAttempts) {
+                    logger.error("Provisioning task ID: {} ({} for {} ID: {}) failed permanently after {} attempts: {}",
+                            task.getId(), task.getOperation(), task.getSubjectType(), task.getSubjectId(), task.getAttempts(), error, e);
+                    provisioningOutbox.markFailed(task, error);
+                } else {
+                    Duration backoff = backoff(task.getAttempts());
+                    logger.warn("Provisioning task ID: {} ({} for {} ID: {}) attempt {} failed, retrying in {} ms: {}",
+                            task.getId(), task.getOperation(), task.getSubjectType(), task.getSubjectId(), task.getAttempts(),
+                            backoff.toMillis(), error);
+                    provisioningOutbox.markForRetry(task, backoff, error);
+                }
+            } catch (Exception recordFailure) {
+                // The lease expires and the task is claimed again
+                logger.error("Could not record outcome of provisioning task ID: {}: {}", task.getId(), recordFailure.getMessage(), recordFailure);
+            }
+        }
+    }
+
+    /**
+     * Exponential backoff (initial * 2^(attempt-1), capped) with +/-20% jitter,
+     * so tasks that failed together during a Keycloak outage do not retry in lockstep.
+     */
+    Duration backoff(int attempt) {
+        long exponential = initialBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMs, exponential);
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Unfinished tasks keep their lease and are claimed again after a restart
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
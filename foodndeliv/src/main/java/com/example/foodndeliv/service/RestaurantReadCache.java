@@ -0,0 +1,228 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.CursorPageDTO;
+import com.example.foodndeliv.dto.MenuItemResponseDTO;
+import com.example.foodndeliv.dto.RestaurantDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the restaurant read responses (GET /api/restaurants pages, /api/restaurants/{id} and
+ * /api/restaurants/{id}/menu-items) as serialized JSON bytes with a strong ETag (hash of the bytes).
+ * A hit is written out as is, with no query, mapping or serialization; a hit whose ETag matches
+ * If-None-Match is answered 304 with no body. Invalidation is precise and happens after commit:
+ * a restaurant write drops that restaurant's entry and only the list pages whose ID range covers it,
+ * a menu item write drops that restaurant's menu. Like MenuCatalog, a response loaded while a write
+ * was committing is not cached. Misses are loaded in a read-write transaction, i.e. from the primary even
+ * with read replicas: a lagging replica could still return the state from before a write whose invalidation
+ * has already run, and that response would stay cached until the next write. Each kind of entry is bounded
+ * by max-entries, least recently used evicted first. Counted as foodndeliv.read.cache{result}.
+ */
+@Component
+public class RestaurantReadCache {
+
+    /**
+     * A serialized response body and its strong ETag (quoted).
+     */
+    public record CachedResponse(byte[] body, String etag) {
+    }
+
+    // A list page also remembers which IDs it covers: (afterId, lastId], or everything after afterId on the last page
+    private record Page(CachedResponse response, long lastId, boolean lastPage) {
+    }
+
+    private record PageKey(long afterId, int pageSize) {
+    }
+
+    @Autowired
+    private KeysetPaging keysetPaging;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${foodndeliv.read-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${foodndeliv.read-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private Cache<Long, CachedResponse> restaurants;
+    private Cache<Long, CachedResponse> menus;
+    private Cache<PageKey, Page> pages;
+
+    // Not read-only, so misses are read from the primary (see ReplicaRoutingDataSource)
+    private TransactionTemplate primaryReads;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter notModified;
+
+    @PostConstruct
+    public void init() {
+        restaurants = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        menus = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        pages = Caffeine.newBuilder().maximumSize(maxEntries).build();
+        primaryReads = new TransactionTemplate(transactionManager);
+        hits = counter("hit");
+        misses = counter("miss");
+        notModified = counter("not_modified");
+    }
+
+    /**
+     * A page of GET /api/restaurants; the loader runs on a miss.
+     */
+    public ResponseEntity<byte[]> restaurantsPage(String cursor, Integer limit, String ifNoneMatch,
+                                                  Supplier<CursorPageDTO<RestaurantDTO>> loader) {
+        PageKey key = new PageKey(keysetPaging.afterId(cursor), keysetPaging.pageSize(limit));
+        Page page = pages.getIfPresent(key);
+        if (page != null) {
+            return respond(page.response(), ifNoneMatch, true);
+        }
+        long observedGeneration = generation.get();
+        CursorPageDTO<RestaurantDTO> loaded = primaryReads.execute(status -> loader.get());
+        List<RestaurantDTO> items = loaded.getItems();
+        long lastId = items.isEmpty() ? key.afterId() : items.get(items.size() - 1).getId();
+        Page fresh = new Page(serialize(loaded), lastId, loaded.getNextCursor() == null);
+        publish(pages, key, fresh, observedGeneration);
+        return respond(fresh.response(), ifNoneMatch, false);
+    }
+
+    public ResponseEntity<byte[]> restaurant(Long restaurantId, String ifNoneMatch, Supplier<RestaurantDTO> loader) {
+        return cached(restaurants, restaurantId, ifNoneMatch, loader);
+    }
+
+    public ResponseEntity<byte[]> menu(Long restaurantId, String ifNoneMatch, Supplier<List<MenuItemResponseDTO>> loader) {
+        return cached(menus, restaurantId, ifNoneMatch, loader);
+    }
+
+    /**
+     * Drops a created, updated or deleted restaurant (and its menu) once the current transaction commits.
+     */
+    public void restaurantChanged(Long restaurantId) {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            restaurants.invalidate(restaurantId);
+            menus.invalidate(restaurantId);
+            pages.asMap().entrySet().removeIf(entry -> covers(entry.getKey(), entry.getValue(), restaurantId));
+        });
+    }
+
+    /**
+     * Drops a restaurant's menu after one of its items changed, once the current transaction commits.
+     */
+    public void menuChanged(Long restaurantId) {
+        TransactionHooks.afterCommit(() -> {
+            generation.incrementAndGet();
+            menus.invalidate(restaurantId);
+        });
+    }
+
+    private static boolean covers(PageKey key, Page page, long restaurantId) {
+        return restaurantId > key.afterId() && (page.lastPage() || restaurantId <= page.lastId());
+    }
+
+    private ResponseEntity<byte[]> cached(Cache<Long, CachedResponse> cache, Long key,
+                                          String ifNoneMatch, Supplier<?> loader) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response != null) {
+            return respond(response, ifNoneMatch, true);
+        }
+        long observedGeneration = generation.get();
+        CachedResponse fresh = serialize(primaryReads.execute(status -> loader.get()));
+        publish(cache, key, fresh, observedGeneration);
+        return respond(fresh, ifNoneMatch, false);
+    }
+
+    // Only cache if no write was committed while the response was loaded
+    private <K, V> void publish(Cache<K, V> cache, K key, V value, long observedGeneration) {
+        if (!enabled) {
+            return;
+        }
+        cache.asMap().putIfAbsent(key, value);
+        if (generation.get() != observedGeneration) {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    private ResponseEntity<byte[]> respond(CachedResponse response, String ifNoneMatch, boolean hit) {
+        (hit ? hits : misses).increment();
+        if (etagMatches(ifNoneMatch, response.etag())) {
+            notModified.increment();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(response.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .cacheControl(CacheControl.noCache()) // clients may keep it but must revalidate
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
+    }
+
+    // If-None-Match uses weak comparison: W/ prefixes are ignored, '*' matches anything
+    static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CachedResponse serialize(Object body) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16)) + "\"";
+            return new CachedResponse(bytes, etag);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Response cannot be cached: " + e.getMessage(), e);
+        }
+    }
+
+    private Counter counter(String result) {
+        return Counter.builder("foodndeliv.read.cache")
+                .description("Restaurant read responses by cache result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
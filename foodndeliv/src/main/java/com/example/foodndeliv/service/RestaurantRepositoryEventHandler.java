@@ -0,0 +1,59 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.Restaurant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds restaurants written through the Spring Data REST endpoint (/api/restaurants) into the in-memory
+ * state derived from them (rider location, admission control, sales, menu catalog and search, read cache),
+ * like RestaurantService does. Data REST has already committed the change when these run.
+ */
+@Component
+@RepositoryEventHandler
+public class RestaurantRepositoryEventHandler {
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @Autowired
+    private OrderAdmissionControl orderAdmissionControl;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    @HandleAfterDelete
+    public void handleRestaurantWritten(Restaurant restaurant) {
+        restaurantReadCache.restaurantChanged(restaurant.getId());
+    }
+
+    // Nearest-rider queries cache restaurant coordinates
+    @HandleAfterSave
+    @HandleAfterDelete
+    public void handleRestaurantChanged(Restaurant restaurant) {
+        riderLocationService.restaurantChanged(restaurant.getId());
+    }
+
+    @HandleAfterDelete
+    public void handleRestaurantDeleted(Restaurant restaurant) {
+        orderAdmissionControl.restaurantDeleted(restaurant.getId());
+        salesAnalyticsService.restaurantDeleted(restaurant.getId());
+        menuCatalog.restaurantDeleted(restaurant.getId());
+        menuSearchService.restaurantDeleted(restaurant.getId());
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.foodndeliv.service;
 
 import com.example.foodndeliv.dto.CreateRestaurantRequestDTO;
+import com.example.foodndeliv.dto.CursorPageDTO;
 import com.example.foodndeliv.dto.RestaurantDTO;
 import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.mapper.RestaurantMapper;
 import com.example.foodndeliv.repository.MenuItemRepository; // Import for checking menu items
 import com.example.foodndeliv.repository.OrderRepository; // Import for checking orders
 import com.example.foodndeliv.repository.RestaurantRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +16,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 @Service
 public class RestaurantService {
@@ -26,7 +26,10 @@ public class RestaurantService {
     private RestaurantRepository restaurantRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private RestaurantMapper restaurantMapper;
+
+    @Autowired
+    private KeysetPaging keysetPaging;
 
     // Possibly needed for checking menu items and orders before deletion
     @Autowired(required = false) 
@@ -35,22 +38,43 @@ public class RestaurantService {
     @Autowired(required = false) 
     private OrderRepository orderRepository;
 
+    @Autowired
+    private MenuCatalog menuCatalog;
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @Autowired
+    private OrderAdmissionControl orderAdmissionControl;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private MenuSearchService menuSearchService;
+
+    @Autowired
+    private RestaurantReadCache restaurantReadCache;
+
 
     @Transactional
     public RestaurantDTO createRestaurant(CreateRestaurantRequestDTO requestDTO) {
         logger.info("Creating new restaurant with name: {}", requestDTO.getName());
-        Restaurant restaurant = modelMapper.map(requestDTO, Restaurant.class);
+        Restaurant restaurant = restaurantMapper.toEntity(requestDTO);
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        restaurantReadCache.restaurantChanged(savedRestaurant.getId());
         logger.info("Restaurant created successfully with ID: {}", savedRestaurant.getId());
-        return modelMapper.map(savedRestaurant, RestaurantDTO.class);
+        return restaurantMapper.toDto(savedRestaurant);
     }
 
     @Transactional(readOnly = true)
-    public List<RestaurantDTO> getAllRestaurants() {
-        logger.info("Fetching all restaurants");
-        return restaurantRepository.findAll().stream()
-                .map(restaurant -> modelMapper.map(restaurant, RestaurantDTO.class))
-                .collect(Collectors.toList());
+    public CursorPageDTO<RestaurantDTO> getRestaurantsPage(String cursor, Integer limit) {
+        int pageSize = keysetPaging.pageSize(limit);
+        long afterId = keysetPaging.afterId(cursor);
+        logger.info("Fetching restaurants after ID: {} (page size {})", afterId, pageSize);
+        List<Restaurant> restaurants = restaurantRepository.findByIdGreaterThanOrderByIdAsc(afterId, keysetPaging.probe(pageSize));
+        return keysetPaging.toPage(restaurants, pageSize, Restaurant::getId,
+                restaurant -> restaurantMapper.toDto(restaurant));
     }
 
     @Transactional(readOnly = true)
@@ -61,7 +85,7 @@ public class RestaurantService {
                     logger.warn("Restaurant not found with ID: {}", restaurantId);
                     return new NoSuchElementException("Restaurant not found with ID: " + restaurantId);
                 });
-        return modelMapper.map(restaurant, RestaurantDTO.class);
+        return restaurantMapper.toDto(restaurant);
     }
 
     // *** METHOD TO DELETE A RESTAURANT ***
@@ -74,6 +98,14 @@ public class RestaurantService {
         }
 
         restaurantRepository.deleteById(restaurantId);
+        menuCatalog.restaurantDeleted(restaurantId);
+        menuSearchService.restaurantDeleted(restaurantId);
+        restaurantReadCache.restaurantChanged(restaurantId);
+        TransactionHooks.afterCommit(() -> {
+            riderLocationService.restaurantChanged(restaurantId);
+            orderAdmissionControl.restaurantDeleted(restaurantId);
+            salesAnalyticsService.restaurantDeleted(restaurantId);
+        });
         logger.info("Restaurant with ID: {} deleted successfully.", restaurantId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.example.foodndeliv.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Lock-free in-memory index of AVAILABLE riders, handed out longest-idle first.
+ * The set is the source of truth for membership; the queue only gives the order and may hold
+ * stale or duplicate IDs, which are skipped. Removing an ID from the set is atomic, so each
+ * availability is claimed by exactly one caller.
+ * The database (RiderRepository.claimIfAvailable) still has the final say, since other instances
+ * or direct updates can change a rider's status behind this index's back.
+ */
+@Component
+public class RiderAvailabilityIndex {
+
+    private final Set<Long> available = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Long> idleOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Marks a rider as available (no-op if it already is).
+     */
+    public void release(Long riderId) {
+        if (available.add(riderId)) {
+            idleOrder.offer(riderId);
+        }
+    }
+
+    /**
+     * Removes a rider that went offline, was deleted or was assigned elsewhere.
+     */
+    public void remove(Long riderId) {
+        available.remove(riderId);
+    }
+
+    /**
+     * Takes the longest-idle available rider out of the index.
+     * @return The rider ID, or null if no rider is available.
+     */
+    public Long claim() {
+        Long riderId;
+        while ((riderId = idleOrder.poll()) != null) {
+            if (available.remove(riderId)) {
+                return riderId;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a specific rider out of the index (batch dispatch).
+     * @return true if the rider was available and is now owned by the caller.
+     */
+    public boolean take(Long riderId) {
+        return available.remove(riderId);
+    }
+
+    public boolean isAvailable(long riderId) {
+        return available.contains(riderId);
+    }
+
+    /**
+     * A point-in-time copy of the available rider IDs.
+     */
+    public List<Long> snapshot() {
+        return new ArrayList<>(available);
+    }
+
+    public boolean isEmpty() {
+        return available.isEmpty();
+    }
+
+    public int size() {
+        return available.size();
+    }
+}
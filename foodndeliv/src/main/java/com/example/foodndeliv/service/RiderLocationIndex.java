@@ -0,0 +1,314 @@
+package com.example.foodndeliv.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory spatial grid holding the latest reported position of every rider.
+ * The map is cut into square cells of a fixed size in degrees; each cell lists the riders in it.
+ * Everything is kept in primitive arrays indexed by a per-rider slot (no boxed IDs, no per-rider objects),
+ * so a position update is a few array writes and a k-nearest query only touches the cells around the point.
+ * Updates take a short write lock; queries share a read lock.
+ */
+public class RiderLocationIndex {
+
+    private static final double KM_PER_DEGREE = 111.32;
+    private static final int NO_SLOT = -1;
+
+    /**
+     * A rider found by {@link #nearest}.
+     */
+    public record Neighbor(long riderId, double latitude, double longitude, double distanceKm, long recordedAtMillis) {
+    }
+
+    private final double cellDegrees;
+    private final StampedLock lock = new StampedLock();
+
+    // Rider ID -> slot, and per-slot data
+    private final LongIntHashMap slotsByRider;
+    private long[] slotRider;
+    private double[] slotLatitude;
+    private double[] slotLongitude;
+    private long[] slotRecordedAt;
+    private int[] slotCell;
+    private int[] slotPositionInCell;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+
+    // Cell key -> cell, and per-cell member slots
+    private final LongIntHashMap cellsByKey;
+    private int[][] cellMembers;
+    private int[] cellSizes;
+    private int cellCount;
+
+    public RiderLocationIndex(double cellDegrees, int expectedRiders) {
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive.");
+        }
+        this.cellDegrees = cellDegrees;
+        int capacity = Math.max(16, expectedRiders);
+        this.slotsByRider = new LongIntHashMap(capacity);
+        this.slotRider = new long[capacity];
+        this.slotLatitude = new double[capacity];
+        this.slotLongitude = new double[capacity];
+        this.slotRecordedAt = new long[capacity];
+        this.slotCell = new int[capacity];
+        this.slotPositionInCell = new int[capacity];
+        this.cellsByKey = new LongIntHashMap(256);
+        this.cellMembers = new int[256][];
+        this.cellSizes = new int[256];
+    }
+
+    /**
+     * Records a rider's position, unless a newer one is already known (pings can arrive out of order).
+     * @return true if the position was applied.
+     */
+    public boolean update(long riderId, double latitude, double longitude, long recordedAtMillis) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsByRider.get(riderId, NO_SLOT);
+            if (slot != NO_SLOT && recordedAtMillis < slotRecordedAt[slot]) {
+                return false;
+            }
+            int cell = cellFor(cellKey(row(latitude), column(longitude)));
+            if (slot == NO_SLOT) {
+                slot = allocateSlot();
+                slotsByRider.put(riderId, slot);
+                slotRider[slot] = riderId;
+                addToCell(cell, slot);
+            } else if (slotCell[slot] != cell) {
+                removeFromCell(slot);
+                addToCell(cell, slot);
+            }
+            slotLatitude[slot] = latitude;
+            slotLongitude[slot] = longitude;
+            slotRecordedAt[slot] = recordedAtMillis;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Forgets a rider (deleted).
+     */
+    public void remove(long riderId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsByRider.remove(riderId, NO_SLOT);
+            if (slot != NO_SLOT) {
+                removeFromCell(slot);
+                if (freeSlotCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+                }
+                freeSlots[freeSlotCount++] = slot;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return The rider's latest position, or null if none is known.
+     */
+    public GeoPoint positionOf(long riderId) {
+        long stamp = lock.readLock();
+        try {
+            int slot = slotsByRider.get(riderId, NO_SLOT);
+            return slot == NO_SLOT ? null : new GeoPoint(slotLatitude[slot], slotLongitude[slot]);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Finds the k riders closest to a point, searching the grid in rings of cells outward from the point's
+     * cell and stopping as soon as no unvisited ring can hold anything closer than the current k-th rider.
+     * @param notBeforeMillis Positions recorded before this are treated as unknown.
+     * @param riderFilter Which riders qualify (e.g. only available ones).
+     * @param maxDistanceKm Riders further away than this are never returned.
+     * @return Up to k riders, closest first.
+     */
+    public List<Neighbor> nearest(double latitude, double longitude, int k, long notBeforeMillis,
+                                  LongPredicate riderFilter, double maxDistanceKm) {
+        if (k <= 0) {
+            return List.of();
+        }
+        // Narrowest cell side anywhere within the search radius (longitude cells shrink towards the poles)
+        double edgeLatitude = Math.min(89.0, Math.abs(latitude) + maxDistanceKm / KM_PER_DEGREE);
+        double minCellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(edgeLatitude));
+        int maxRing = (int) Math.ceil(maxDistanceKm / minCellKm) + 1;
+
+        // Bounded max-heap of the best k so far, by distance
+        double[] heapDistance = new double[k];
+        int[] heapSlot = new int[k];
+        int heapSize = 0;
+
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        long stamp = lock.readLock();
+        try {
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int dr = -ring; dr <= ring; dr++) {
+                    // Interior rows of the ring only contribute their two edge cells
+                    int step = (dr == -ring || dr == ring) ? 1 : Math.max(1, 2 * ring);
+                    for (int dc = -ring; dc <= ring; dc += step) {
+                        int cell = cellsByKey.get(cellKey(centerRow + dr, centerColumn + dc), NO_SLOT);
+                        if (cell == NO_SLOT) {
+                            continue;
+                        }
+                        int[] members = cellMembers[cell];
+                        for (int m = 0, n = cellSizes[cell]; m < n; m++) {
+                            int slot = members[m];
+                            if (slotRecordedAt[slot] < notBeforeMillis || !riderFilter.test(slotRider[slot])) {
+                                continue;
+                            }
+                            double distance = GeoPoint.distanceKm(latitude, longitude,
+                                    slotLatitude[slot], slotLongitude[slot]);
+                            if (distance > maxDistanceKm) {
+                                continue;
+                            }
+                            if (heapSize < k) {
+                                heapDistance[heapSize] = distance;
+                                heapSlot[heapSize] = slot;
+                                siftUp(heapDistance, heapSlot, heapSize++);
+                            } else if (distance < heapDistance[0]) {
+                                heapDistance[0] = distance;
+                                heapSlot[0] = slot;
+                                siftDown(heapDistance, heapSlot, heapSize);
+                            }
+                        }
+                    }
+                }
+                // Anything in ring + 1 or beyond is at least ring full cells away
+                if (heapSize == k && heapDistance[0] <= ring * minCellKm) {
+                    break;
+                }
+            }
+
+            List<Neighbor> result = new ArrayList<>(heapSize);
+            for (int i = 0; i < heapSize; i++) {
+                int slot = heapSlot[i];
+                result.add(new Neighbor(slotRider[slot], slotLatitude[slot], slotLongitude[slot],
+                        heapDistance[i], slotRecordedAt[slot]));
+            }
+            result.sort((a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slotsByRider.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    // Returns the cell for a key, creating it if needed (caller holds the write lock)
+    private int cellFor(long key) {
+        int cell = cellsByKey.get(key, NO_SLOT);
+        if (cell == NO_SLOT) {
+            if (cellCount == cellSizes.length) {
+                cellMembers = Arrays.copyOf(cellMembers, cellCount * 2);
+                cellSizes = Arrays.copyOf(cellSizes, cellCount * 2);
+            }
+            cell = cellCount++;
+            cellMembers[cell] = new int[8];
+            cellsByKey.put(key, cell);
+        }
+        return cell;
+    }
+
+    private void addToCell(int cell, int slot) {
+        int size = cellSizes[cell];
+        if (size == cellMembers[cell].length) {
+            cellMembers[cell] = Arrays.copyOf(cellMembers[cell], size * 2);
+        }
+        cellMembers[cell][size] = slot;
+        cellSizes[cell] = size + 1;
+        slotCell[slot] = cell;
+        slotPositionInCell[slot] = size;
+    }
+
+    // Swap-remove: the cell's last member takes the slot's place
+    private void removeFromCell(int slot) {
+        int cell = slotCell[slot];
+        int position = slotPositionInCell[slot];
+        int last = --cellSizes[cell];
+        int moved = cellMembers[cell][last];
+        cellMembers[cell][position] = moved;
+        slotPositionInCell[moved] = position;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == slotRider.length) {
+            int capacity = slotCount * 2;
+            slotRider = Arrays.copyOf(slotRider, capacity);
+            slotLatitude = Arrays.copyOf(slotLatitude, capacity);
+            slotLongitude = Arrays.copyOf(slotLongitude, capacity);
+            slotRecordedAt = Arrays.copyOf(slotRecordedAt, capacity);
+            slotCell = Arrays.copyOf(slotCell, capacity);
+            slotPositionInCell = Arrays.copyOf(slotPositionInCell, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static void siftUp(double[] distance, int[] slot, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (distance[parent] >= distance[i]) {
+                return;
+            }
+            swap(distance, slot, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] distance, int[] slot, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left + 1 < size && distance[left + 1] > distance[left] ? left + 1 : left;
+            if (distance[i] >= distance[largest]) {
+                return;
+            }
+            swap(distance, slot, i, largest);
+            i = largest;
+        }
+    }
+
+    private static void swap(double[] distance, int[] slot, int a, int b) {
+        double d = distance[a];
+        distance[a] = distance[b];
+        distance[b] = d;
+        int s = slot[a];
+        slot[a] = slot[b];
+        slot[b] = s;
+    }
+}
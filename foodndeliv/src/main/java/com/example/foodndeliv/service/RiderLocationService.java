@@ -0,0 +1,216 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.NearbyRiderDTO;
+import com.example.foodndeliv.dto.RiderLocationDTO;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.repository.RestaurantRepository;
+import com.example.foodndeliv.repository.RiderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingests rider GPS pings and answers nearest-rider queries.
+ * The latest position of every rider lives in a RiderLocationIndex (no database access per ping or per query);
+ * RiderLocationWriter persists positions write-behind. Also the position source for batch dispatch,
+ * falling back to the last pickup for riders that have never reported a position.
+ */
+@Service
+@Primary
+public class RiderLocationService implements RiderPositionSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiderLocationService.class);
+
+    @Autowired
+    private RiderLocationWriter riderLocationWriter;
+
+    @Autowired
+    private RiderAvailabilityIndex riderAvailabilityIndex;
+
+    @Autowired
+    private LastPickupPositionSource lastPickupPositionSource;
+
+    @Autowired
+    private RiderRepository riderRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Value("${foodndeliv.rider-location.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${foodndeliv.rider-location.max-age-seconds:120}")
+    private long maxAgeSeconds;
+
+    @Value("${foodndeliv.rider-location.search-radius-km:15}")
+    private double searchRadiusKm;
+
+    @Value("${foodndeliv.rider-location.max-nearest:50}")
+    private int maxNearest;
+
+    private final RiderLocationIndex locationIndex;
+
+    // Restaurants hardly ever move; keep their coordinates off the query path
+    private final ConcurrentHashMap<Long, GeoPoint> restaurantPositions = new ConcurrentHashMap<>();
+
+    public RiderLocationService(@Value("${foodndeliv.rider-location.cell-degrees:0.01}") double cellDegrees,
+                                @Value("${foodndeliv.rider-location.expected-riders:10000}") int expectedRiders) {
+        this.locationIndex = new RiderLocationIndex(cellDegrees, expectedRiders);
+    }
+
+    /**
+     * Records a single ping for the given rider.
+     * @throws IllegalArgumentException if the coordinates are missing or out of range.
+     */
+    public void recordLocation(Long riderId, RiderLocationDTO ping) {
+        if (ping == null) {
+            throw new IllegalArgumentException("Location is required.");
+        }
+        ping.setRiderId(riderId);
+        recordLocations(List.of(ping));
+    }
+
+    /**
+     * Records a batch of pings, possibly from many riders. The batch is validated as a whole first,
+     * so it is either accepted or rejected entirely. Pings older than the rider's known position are ignored.
+     * @return The number of pings that updated a rider's position.
+     * @throws IllegalArgumentException if the batch is empty, too large, or has an invalid entry.
+     */
+    public int recordLocations(List<RiderLocationDTO> pings) {
+        if (pings == null || pings.isEmpty()) {
+            throw new IllegalArgumentException("At least one location is required.");
+        }
+        if (pings.size() > maxBatchSize) {
+            throw new IllegalArgumentException("At most " + maxBatchSize + " locations can be sent per request.");
+        }
+        for (int i = 0; i < pings.size(); i++) {
+            validate(pings.get(i), i);
+        }
+
+        long now = System.currentTimeMillis();
+        int applied = 0;
+        for (RiderLocationDTO ping : pings) {
+            // Device clocks drift; never accept a position from the future
+            long recordedAt = ping.getRecordedAt() != null ? Math.min(ping.getRecordedAt().toEpochMilli(), now) : now;
+            if (locationIndex.update(ping.getRiderId(), ping.getLatitude(), ping.getLongitude(), recordedAt)) {
+                riderLocationWriter.enqueue(ping.getRiderId(), ping.getLatitude(), ping.getLongitude(), recordedAt);
+                applied++;
+            }
+        }
+        logger.debug("Recorded {} of {} rider location(s).", applied, pings.size());
+        return applied;
+    }
+
+    /**
+     * Finds the available riders closest to a restaurant, among those that reported a position recently.
+     * @param k Number of riders wanted (capped by the server maximum).
+     * @return Up to k riders, closest first.
+     * @throws NoSuchElementException if the restaurant does not exist.
+     * @throws IllegalArgumentException if k is not positive or the restaurant has no coordinates.
+     */
+    public List<NearbyRiderDTO> findNearestAvailableRiders(Long restaurantId, int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive.");
+        }
+        GeoPoint restaurant = restaurantPosition(restaurantId);
+        long notBefore = System.currentTimeMillis() - maxAgeSeconds * 1000;
+        List<RiderLocationIndex.Neighbor> neighbors = locationIndex.nearest(restaurant.latitude(), restaurant.longitude(),
+                Math.min(k, maxNearest), notBefore, riderAvailabilityIndex::isAvailable, searchRadiusKm);
+
+        List<NearbyRiderDTO> riders = new ArrayList<>(neighbors.size());
+        for (RiderLocationIndex.Neighbor neighbor : neighbors) {
+            riders.add(new NearbyRiderDTO(neighbor.riderId(), neighbor.latitude(), neighbor.longitude(),
+                    neighbor.distanceKm(), Instant.ofEpochMilli(neighbor.recordedAtMillis())));
+        }
+        return riders;
+    }
+
+    @Override
+    public Map<Long, GeoPoint> positionsOf(Collection<Long> riderIds) {
+        Map<Long, GeoPoint> positions = new HashMap<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long riderId : riderIds) {
+            GeoPoint position = locationIndex.positionOf(riderId);
+            if (position != null) {
+                positions.put(riderId, position);
+            } else {
+                unknown.add(riderId);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            positions.putAll(lastPickupPositionSource.positionsOf(unknown));
+        }
+        return positions;
+    }
+
+    /**
+     * Forgets a deleted rider's position, in memory and pending write.
+     */
+    public void riderDeleted(Long riderId) {
+        locationIndex.remove(riderId);
+        riderLocationWriter.discard(riderId);
+    }
+
+    /**
+     * Drops a restaurant's cached coordinates after it was changed or deleted.
+     */
+    public void restaurantChanged(Long restaurantId) {
+        restaurantPositions.remove(restaurantId);
+    }
+
+    /**
+     * Loads the last persisted positions, so nearest-rider queries work right after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLastLocations() {
+        List<RiderLocationDTO> locations = riderRepository.findLastLocations();
+        for (RiderLocationDTO location : locations) {
+            long recordedAt = location.getRecordedAt() != null ? location.getRecordedAt().toEpochMilli() : 0L;
+            locationIndex.update(location.getRiderId(), location.getLatitude(), location.getLongitude(), recordedAt);
+        }
+        logger.info("Rider location index loaded with {} position(s).", locations.size());
+    }
+
+    private GeoPoint restaurantPosition(Long restaurantId) {
+        GeoPoint cached = restaurantPositions.get(restaurantId);
+        if (cached != null) {
+            return cached;
+        }
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new NoSuchElementException("Restaurant not found with ID: " + restaurantId));
+        GeoPoint position = GeoPoint.ofNullable(restaurant.getLatitude(), restaurant.getLongitude());
+        if (position == null) {
+            throw new IllegalArgumentException("Restaurant with ID: " + restaurantId + " has no location.");
+        }
+        restaurantPositions.put(restaurantId, position);
+        return position;
+    }
+
+    private static void validate(RiderLocationDTO ping, int index) {
+        if (ping == null || ping.getRiderId() == null) {
+            throw new IllegalArgumentException("Location " + index + ": riderId is required.");
+        }
+        Double latitude = ping.getLatitude();
+        Double longitude = ping.getLongitude();
+        if (latitude == null || !(latitude >= -90.0 && latitude <= 90.0)) { // also rejects NaN
+            throw new IllegalArgumentException("Location " + index + ": latitude must be between -90 and 90.");
+        }
+        if (longitude == null || !(longitude >= -180.0 && longitude <= 180.0)) {
+            throw new IllegalArgumentException("Location " + index + ": longitude must be between -180 and 180.");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.foodndeliv.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind persistence of rider positions. Pings only replace the rider's pending position in memory;
+ * every flush interval the latest position of each rider that moved is written with one JDBC batch,
+ * so the database sees at most one UPDATE per rider per interval however often riders ping.
+ * Positions are only a cache of the devices' state: a crash loses at most one interval of them.
+ */
+@Component
+public class RiderLocationWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiderLocationWriter.class);
+
+    // The timestamp guard keeps a slow flush from overwriting a newer position written by another instance
+    private static final String UPDATE_SQL =
+            "UPDATE riders SET latitude = ?, longitude = ?, location_updated_at = ? " +
+            "WHERE id = ? AND (location_updated_at IS NULL OR location_updated_at < ?)";
+
+    private record PendingLocation(double latitude, double longitude, long recordedAtMillis) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foodndeliv.rider-location.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    private final ConcurrentHashMap<Long, PendingLocation> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Queues a position for the next flush, replacing any older pending one for the rider.
+     */
+    public void enqueue(long riderId, double latitude, double longitude, long recordedAtMillis) {
+        pending.merge(riderId, new PendingLocation(latitude, longitude, recordedAtMillis),
+                (current, next) -> next.recordedAtMillis() >= current.recordedAtMillis() ? next : current);
+    }
+
+    /**
+     * Drops the pending position of a deleted rider.
+     */
+    public void discard(long riderId) {
+        pending.remove(riderId);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${foodndeliv.rider-location.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> riderIds = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Long riderId : pending.keySet()) {
+            // A ping arriving after this remove just lands in the next flush
+            PendingLocation location = pending.remove(riderId);
+            if (location == null) {
+                continue;
+            }
+            Timestamp recordedAt = new Timestamp(location.recordedAtMillis());
+            riderIds.add(riderId);
+            rows.add(new Object[]{location.latitude(), location.longitude(), recordedAt, riderId, recordedAt});
+        }
+
+        for (int from = 0; from < rows.size(); from += flushBatchSize) {
+            int to = Math.min(from + flushBatchSize, rows.size());
+            try {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows.subList(from, to));
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to flush {} rider positions, retrying next interval: {}", to - from, ex.getMessage());
+                requeue(riderIds.subList(from, to), rows.subList(from, to));
+            }
+        }
+        logger.debug("Flushed {} rider positions.", rows.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void requeue(List<Long> riderIds, List<Object[]> rows) {
+        for (int i = 0; i < riderIds.size(); i++) {
+            Object[] row = rows.get(i);
+            enqueue(riderIds.get(i), (Double) row[0], (Double) row[1], ((Timestamp) row[2]).getTime());
+        }
+    }
+}
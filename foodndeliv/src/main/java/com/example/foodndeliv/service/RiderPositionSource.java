@@ -0,0 +1,15 @@
+package com.example.foodndeliv.service;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Where batch dispatch gets rider positions from.
+ */
+public interface RiderPositionSource {
+
+    /**
+     * @return Known positions of the given riders; riders without a known position are absent.
+     */
+    Map<Long, GeoPoint> positionsOf(Collection<Long> riderIds);
+}
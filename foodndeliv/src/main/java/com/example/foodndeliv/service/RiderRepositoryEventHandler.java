@@ -0,0 +1,41 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.Rider;
+import com.example.foodndeliv.types.RiderStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds riders written through the Spring Data REST endpoint (/api/riders) into DispatchService and
+ * RiderLocationService, like RiderService does. Data REST has already committed the change when these run.
+ */
+@Component
+@RepositoryEventHandler
+public class RiderRepositoryEventHandler {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private RiderLocationService riderLocationService;
+
+    @HandleAfterCreate
+    @HandleAfterSave
+    public void handleRiderSaved(Rider rider) {
+        if (rider.getStatus() == RiderStatus.AVAILABLE) {
+            dispatchService.riderAvailable(rider.getId());
+        } else {
+            dispatchService.riderUnavailable(rider.getId());
+        }
+    }
+
+    @HandleAfterDelete
+    public void handleRiderDeleted(Rider rider) {
+        dispatchService.riderUnavailable(rider.getId());
+        riderLocationService.riderDeleted(rider.getId());
+    }
+}
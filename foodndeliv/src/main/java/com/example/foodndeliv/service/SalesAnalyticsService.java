@@ -0,0 +1,198 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.ItemSalesDTO;
+import com.example.foodndeliv.dto.MinuteSalesDTO;
+import com.example.foodndeliv.dto.SalesSnapshotDTO;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.OrderLine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live per-restaurant sales analytics: orders, revenue and best-selling products over the last
+ * window-minutes, answered from an in-memory SalesWindow per restaurant without touching the database.
+ * Every order creation path reports its orders here; they are counted once their transaction commits.
+ * On startup the window is filled from the orders created in the last window-minutes, so a restart
+ * does not reset the figures. Counts are of created orders; later cancellations are not subtracted.
+ * Each instance only counts the orders it created itself after that warm start.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    // Ordered by order so the lines of one order arrive together
+    private static final String WARM_START_SQL =
+            "SELECT o.id, o.restaurant_id, o.created_at, l.product_name, l.quantity, l.price " +
+            "FROM orders o JOIN order_lines l ON l.order_id = o.id " +
+            "WHERE o.created_at >= ? AND o.created_at < ? ORDER BY o.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${foodndeliv.sales-analytics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${foodndeliv.sales-analytics.window-minutes:60}")
+    private int windowMinutes;
+
+    @Value("${foodndeliv.sales-analytics.max-products-per-restaurant:500}")
+    private int maxProducts;
+
+    @Value("${foodndeliv.sales-analytics.max-top:50}")
+    private int maxTop;
+
+    private final ConcurrentHashMap<Long, SalesWindow> windows = new ConcurrentHashMap<>();
+
+    // Orders created from here on are counted live; older ones by the warm start
+    private final Instant startedAt = Instant.now();
+
+    /**
+     * Counts a new order once the current transaction commits (right away outside a transaction).
+     * The order's restaurant and lines must be set.
+     */
+    public void orderCreated(Order order) {
+        if (!enabled || order.getRestaurant() == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> record(order));
+    }
+
+    /**
+     * Sales of the restaurant over the last {@code minutes} minutes, including the current one.
+     * A restaurant without orders in that range (or one that does not exist) gets an all-zero snapshot.
+     * @throws IllegalArgumentException if minutes or top is out of range.
+     */
+    public SalesSnapshotDTO getSales(Long restaurantId, int minutes, int top) {
+        if (minutes < 1 || minutes > windowMinutes) {
+            throw new IllegalArgumentException("minutes must be between 1 and " + windowMinutes + ".");
+        }
+        if (top < 0 || top > maxTop) {
+            throw new IllegalArgumentException("top must be between 0 and " + maxTop + ".");
+        }
+        long now = System.currentTimeMillis();
+        SalesWindow window = windows.get(restaurantId);
+        SalesWindow.Totals totals = (window != null ? window : new SalesWindow(windowMinutes, 0)).totals(now, minutes, top);
+
+        List<ItemSalesDTO> items = new ArrayList<>(totals.topItems().size());
+        for (SalesWindow.ItemTotal item : totals.topItems()) {
+            items.add(new ItemSalesDTO(item.productName(), item.quantity(), item.revenue()));
+        }
+        List<MinuteSalesDTO> perMinute = new ArrayList<>(minutes);
+        for (int i = 0; i < minutes; i++) {
+            Instant minuteStart = Instant.ofEpochMilli(totals.fromMillis() + i * SalesWindow.BUCKET_MILLIS);
+            perMinute.add(new MinuteSalesDTO(minuteStart, totals.bucketOrders()[i], totals.bucketRevenue()[i]));
+        }
+        return new SalesSnapshotDTO(restaurantId, Instant.ofEpochMilli(totals.fromMillis()), Instant.ofEpochMilli(totals.toMillis()),
+                totals.orders(), totals.revenue(), items, perMinute);
+    }
+
+    /**
+     * Forgets a deleted restaurant's sales.
+     */
+    public void restaurantDeleted(Long restaurantId) {
+        windows.remove(restaurantId);
+    }
+
+    /**
+     * Drops the windows of restaurants without an order in the whole window, so memory follows active restaurants.
+     * A dropped window is retired first, so an order racing with the eviction goes to a new window (see record).
+     */
+    @Scheduled(fixedDelayString = "${foodndeliv.sales-analytics.evict-interval-ms:60000}")
+    public void evictIdleWindows() {
+        long now = System.currentTimeMillis();
+        for (Long restaurantId : windows.keySet()) {
+            windows.computeIfPresent(restaurantId, (id, window) -> window.retireIfIdle(now) ? null : window);
+        }
+    }
+
+    /**
+     * Counts the orders created in the last window-minutes before this instance started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        if (!enabled) {
+            return;
+        }
+        long since = startedAt.toEpochMilli() - windowMinutes * SalesWindow.BUCKET_MILLIS;
+        OrderRows rows = new OrderRows();
+        jdbcTemplate.query(WARM_START_SQL, rs -> {
+            long orderId = rs.getLong(1);
+            if (orderId != rows.orderId) {
+                rows.flush();
+                rows.orderId = orderId;
+                rows.restaurantId = rs.getLong(2);
+                rows.createdAtMillis = rs.getTimestamp(3).getTime();
+            }
+            rows.products.add(rs.getString(4));
+            rows.quantities.add(rs.getInt(5));
+            rows.prices.add(rs.getDouble(6));
+        }, new Timestamp(since), Timestamp.from(startedAt));
+        rows.flush();
+        logger.info("Sales analytics loaded {} order(s) of the last {} minutes for {} restaurant(s).",
+                rows.orders, windowMinutes, windows.size());
+    }
+
+    private void record(Order order) {
+        List<OrderLine> lines = order.getOrderLines() != null ? order.getOrderLines() : List.of();
+        String[] products = new String[lines.size()];
+        int[] quantities = new int[lines.size()];
+        double[] prices = new double[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            OrderLine line = lines.get(i);
+            products[i] = line.getProductName();
+            quantities[i] = line.getQuantity();
+            prices[i] = line.getPrice();
+        }
+        long now = System.currentTimeMillis();
+        long createdAt = order.getCreatedAt() != null ? Math.min(order.getCreatedAt().toEpochMilli(), now) : now;
+        record(order.getRestaurant().getId(), createdAt, products, quantities, prices);
+    }
+
+    private void record(Long restaurantId, long timeMillis, String[] products, int[] quantities, double[] prices) {
+        while (true) {
+            SalesWindow window = windows.computeIfAbsent(restaurantId, id -> new SalesWindow(windowMinutes, maxProducts));
+            if (window.record(timeMillis, products, quantities, prices) || !window.isRetired()) {
+                return;
+            }
+            windows.remove(restaurantId, window); // evicted meanwhile: count it in a fresh window
+        }
+    }
+
+    // Lines of the order currently being read by the warm start
+    private final class OrderRows {
+        long orderId = -1;
+        long restaurantId;
+        long createdAtMillis;
+        final List<String> products = new ArrayList<>();
+        final List<Integer> quantities = new ArrayList<>();
+        final List<Double> prices = new ArrayList<>();
+        int orders;
+
+        void flush() {
+            if (products.isEmpty()) {
+                return;
+            }
+            int[] quantityArray = quantities.stream().mapToInt(Integer::intValue).toArray();
+            double[] priceArray = prices.stream().mapToDouble(Double::doubleValue).toArray();
+            record(restaurantId, createdAtMillis, products.toArray(new String[0]), quantityArray, priceArray);
+            orders++;
+            products.clear();
+            quantities.clear();
+            prices.clear();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.foodndeliv.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sliding window of one restaurant's sales, in one-minute buckets kept in a ring.
+ * Each ring slot holds the minute it currently counts plus primitive counters: orders and revenue,
+ * and quantity and revenue per product (one row of the ring per product ever sold, up to maxProducts;
+ * further products only count towards the totals). A slot is cleared when a new minute claims it,
+ * so nothing is ever scanned to expire old data. Queries walk the requested minutes once:
+ * O(minutes x products sold), independent of the number of orders.
+ * All methods synchronize on the window; there is one window per restaurant.
+ */
+public class SalesWindow {
+
+    public static final long BUCKET_MILLIS = 60_000L;
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    /**
+     * Quantity and revenue of one product over a queried range.
+     */
+    public record ItemTotal(String productName, long quantity, double revenue) {
+    }
+
+    /**
+     * Sales over a queried range; bucketOrders/bucketRevenue hold one entry per minute, oldest first.
+     */
+    public record Totals(long fromMillis, long toMillis, long orders, double revenue,
+                         long[] bucketOrders, double[] bucketRevenue, List<ItemTotal> topItems) {
+    }
+
+    private final int buckets;
+    private final int maxProducts;
+
+    // Per ring slot
+    private final long[] slotMinute;
+    private final long[] slotOrders;
+    private final double[] slotRevenue;
+
+    // Per product, per ring slot
+    private final Map<String, Integer> productIndex = new HashMap<>();
+    private String[] productNames = new String[8];
+    private int[][] productQuantity = new int[8][];
+    private double[][] productRevenue = new double[8][];
+    private int productCount;
+
+    private long newestMinute = EMPTY;
+
+    // Set once the window has been dropped from its owner's map; it then counts nothing more
+    private boolean retired;
+
+    public SalesWindow(int buckets, int maxProducts) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("A sales window needs at least one bucket.");
+        }
+        this.buckets = buckets;
+        this.maxProducts = Math.max(0, maxProducts);
+        this.slotMinute = new long[buckets];
+        this.slotOrders = new long[buckets];
+        this.slotRevenue = new double[buckets];
+        Arrays.fill(slotMinute, EMPTY);
+    }
+
+    /**
+     * Counts one order. The arrays describe its lines and must have the same length.
+     * @return false if the order was not counted: it is older than the window, or the window is retired.
+     */
+    public synchronized boolean record(long timeMillis, String[] lineProducts, int[] lineQuantities, double[] linePrices) {
+        long minute = Math.floorDiv(timeMillis, BUCKET_MILLIS);
+        if (retired || (newestMinute != EMPTY && minute <= newestMinute - buckets)) {
+            return false;
+        }
+        int slot = slotOf(minute);
+        if (slotMinute[slot] != minute) {
+            clearSlot(slot);
+            slotMinute[slot] = minute;
+        }
+        newestMinute = Math.max(newestMinute, minute);
+
+        double orderRevenue = 0.0;
+        for (int i = 0; i < lineProducts.length; i++) {
+            double lineRevenue = lineQuantities[i] * linePrices[i];
+            orderRevenue += lineRevenue;
+            int product = productFor(lineProducts[i]);
+            if (product >= 0) {
+                productQuantity[product][slot] += lineQuantities[i];
+                productRevenue[product][slot] += lineRevenue;
+            }
+        }
+        slotOrders[slot]++;
+        slotRevenue[slot] += orderRevenue;
+        return true;
+    }
+
+    /**
+     * Sales of the last {@code minutes} minutes up to and including the minute of {@code nowMillis}.
+     * @param minutes Range length, capped at the window size.
+     * @param top Number of best-selling products (by quantity) to return.
+     */
+    public synchronized Totals totals(long nowMillis, int minutes, int top) {
+        int range = Math.max(1, Math.min(minutes, buckets));
+        long toMinute = Math.floorDiv(nowMillis, BUCKET_MILLIS);
+        long fromMinute = toMinute - range + 1;
+
+        long[] bucketOrders = new long[range];
+        double[] bucketRevenue = new double[range];
+        long[] quantities = new long[productCount];
+        double[] revenues = new double[productCount];
+        long orders = 0;
+        double revenue = 0.0;
+
+        for (int i = 0; i < range; i++) {
+            long minute = fromMinute + i;
+            int slot = slotOf(minute);
+            if (slotMinute[slot] != minute) {
+                continue; // no order in that minute, or the slot was reused
+            }
+            bucketOrders[i] = slotOrders[slot];
+            bucketRevenue[i] = slotRevenue[slot];
+            orders += slotOrders[slot];
+            revenue += slotRevenue[slot];
+            for (int p = 0; p < productCount; p++) {
+                quantities[p] += productQuantity[p][slot];
+                revenues[p] += productRevenue[p][slot];
+            }
+        }
+
+        List<ItemTotal> items = new ArrayList<>();
+        for (int p = 0; p < productCount; p++) {
+            if (quantities[p] > 0) {
+                items.add(new ItemTotal(productNames[p], quantities[p], revenues[p]));
+            }
+        }
+        items.sort(Comparator.comparingLong(ItemTotal::quantity).reversed()
+                .thenComparing(Comparator.comparingDouble(ItemTotal::revenue).reversed()));
+        List<ItemTotal> topItems = items.size() > top ? List.copyOf(items.subList(0, Math.max(0, top))) : items;
+
+        return new Totals(fromMinute * BUCKET_MILLIS, (toMinute + 1) * BUCKET_MILLIS, orders, revenue,
+                bucketOrders, bucketRevenue, topItems);
+    }
+
+    /**
+     * True once every recorded minute has left the window, i.e. the window can be dropped.
+     */
+    public synchronized boolean isIdle(long nowMillis) {
+        return newestMinute == EMPTY || newestMinute <= Math.floorDiv(nowMillis, BUCKET_MILLIS) - buckets;
+    }
+
+    /**
+     * Retires the window if it is idle, atomically with respect to record(), so no order can be
+     * counted into a window that is being dropped.
+     * @return true if the window is (now) retired.
+     */
+    public synchronized boolean retireIfIdle(long nowMillis) {
+        if (isIdle(nowMillis)) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    public synchronized boolean isRetired() {
+        return retired;
+    }
+
+    private int slotOf(long minute) {
+        return (int) Math.floorMod(minute, (long) buckets);
+    }
+
+    private void clearSlot(int slot) {
+        slotOrders[slot] = 0;
+        slotRevenue[slot] = 0.0;
+        for (int p = 0; p < productCount; p++) {
+            productQuantity[p][slot] = 0;
+            productRevenue[p][slot] = 0.0;
+        }
+    }
+
+    private int productFor(String productName) {
+        Integer index = productIndex.get(productName);
+        if (index != null) {
+            return index;
+        }
+        if (productCount >= maxProducts) {
+            return -1;
+        }
+        if (productCount == productNames.length) {
+            int capacity = productCount * 2;
+            productNames = Arrays.copyOf(productNames, capacity);
+            productQuantity = Arrays.copyOf(productQuantity, capacity);
+            productRevenue = Arrays.copyOf(productRevenue, capacity);
+        }
+        int product = productCount++;
+        productNames[product] = productName;
+        productQuantity[product] = new int[buckets];
+        productRevenue[product] = new double[buckets];
+        productIndex.put(productName, product);
+        return product;
+    }
+}
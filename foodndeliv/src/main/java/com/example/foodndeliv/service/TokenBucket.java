@@ -0,0 +1,59 @@
+package com.example.foodndeliv.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the generic cell rate algorithm):
+ * the bucket refills at ratePerSecond tokens per second up to burst tokens, and taking a token moves
+ * the arrival time forward by one token's interval with a compare-and-set. No refill thread, no lock.
+ * Times are System.nanoTime() values supplied by the caller.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (!(ratePerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1.");
+        }
+        this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos); // starts full
+    }
+
+    /**
+     * Takes a token now, or reserves the next free one if it frees up within maxWaitNanos.
+     * @return 0 if a token was taken, the nanos to wait before using a reserved token,
+     *         or -1 if no token frees up in time (nothing is taken).
+     */
+    public long tryAcquire(long nowNanos, long maxWaitNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + nanosPerToken;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return Math.max(0L, wait);
+            }
+        }
+    }
+
+    /**
+     * @return true if the bucket has refilled to its burst, i.e. replacing it with a new bucket changes nothing.
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+
+    /**
+     * @return Nanos until a token can be taken without waiting; 0 if one is available now.
+     */
+    public long nanosUntilAvailable(long nowNanos) {
+        long next = Math.max(theoreticalArrival.get(), nowNanos) + nanosPerToken;
+        return Math.max(0L, next - burstNanos - nowNanos);
+    }
+}
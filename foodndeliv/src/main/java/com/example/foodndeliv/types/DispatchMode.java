@@ -0,0 +1,6 @@
+package com.example.foodndeliv.types;
+
+public enum DispatchMode {
+    GREEDY, // Assign the longest-idle rider as soon as an order is ready
+    BATCH   // Collect orders and riders over a window and solve the assignment optimally
+}
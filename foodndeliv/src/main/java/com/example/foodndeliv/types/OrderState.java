@@ -1,10 +1,38 @@
 package com.example.foodndeliv.types;
 
+/**
+ * Order lifecycle: OPEN -> CONFIRMED -> ACCEPTED -> DELIVERED.
+ * An order can be CANCELLED until it is delivered, and DECLINED by the restaurant while CONFIRMED.
+ * DELIVERED, CANCELLED and DECLINED are final.
+ */
 public enum OrderState { 
     OPEN, 
     CONFIRMED, 
     CANCELLED, 
     ACCEPTED,  
     DECLINED, 
-    DELIVERED 
+    DELIVERED;
+
+    /**
+     * @return true if an order in this state may move to the target state.
+     */
+    public boolean canTransitionTo(OrderState target) {
+        return switch (this) {
+            case OPEN -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == ACCEPTED || target == DECLINED || target == CANCELLED;
+            case ACCEPTED -> target == DELIVERED || target == CANCELLED;
+            case CANCELLED, DECLINED, DELIVERED -> false;
+        };
+    }
+
+    /**
+     * @return true if an order may be created in this state.
+     */
+    public boolean isInitial() {
+        return this == OPEN || this == CONFIRMED;
+    }
+
+    public boolean isFinal() {
+        return this == CANCELLED || this == DECLINED || this == DELIVERED;
+    }
 }
@@ -0,0 +1,6 @@
+package com.example.foodndeliv.types;
+
+public enum ProvisioningOperation {
+    CREATE_USER,
+    DELETE_USER
+}
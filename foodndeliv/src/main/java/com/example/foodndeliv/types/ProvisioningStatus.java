@@ -0,0 +1,9 @@
+package com.example.foodndeliv.types;
+
+public enum ProvisioningStatus {
+    PENDING,
+    IN_PROGRESS,
+    SUCCEEDED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,13 @@
+-- Runs on every startup after Hibernate's schema update (SchemaIndexInitializer), so the tables exist
+-- even on a fresh database. Indexes Hibernate cannot declare from the entities (partial indexes) or that
+-- must also be added to existing databases. Every statement must be idempotent.
+
+-- Orders waiting for a rider are looked up on every rider availability change; keep that lookup
+-- on a small partial index.
+CREATE INDEX IF NOT EXISTS idx_orders_waiting_for_rider ON orders (id)
+    WHERE rider_id IS NULL AND state IN ('CONFIRMED', 'ACCEPTED');
+
+CREATE INDEX IF NOT EXISTS idx_orders_rider_id ON orders (rider_id);
+
+-- Sales analytics reloads the last hour of orders on startup by creation time.
+CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
@@ -0,0 +1,46 @@
+-- Runs on every startup before Hibernate's schema update (spring.sql.init, see application.properties).
+-- Every statement must be idempotent and must be a no-op on an empty database.
+-- Statements are separated by '@@' so PL/pgSQL blocks can contain ';'.
+-- Indexes go into schema-indexes.sql, which runs after the schema update (the tables may not exist yet here).
+
+-- Tables created while entities used GenerationType.IDENTITY keep their identity sequences
+-- (<table>_id_seq). The entities now use those same sequences with a pooled allocation of 50,
+-- so bump the increment to match; existing rows keep their IDs and new IDs continue after them.
+DO $$
+DECLARE
+    tbl text;
+BEGIN
+    FOREACH tbl IN ARRAY ARRAY['customers', 'restaurants', 'menu_items', 'riders', 'orders', 'order_lines']
+    LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = tbl
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', tbl);
+        ELSIF to_regclass(tbl || '_id_seq') IS NOT NULL THEN
+            EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', tbl || '_id_seq');
+        END IF;
+    END LOOP;
+END $$
+@@
+
+-- Order.totalPrice is persisted now; backfill orders created before the column existed.
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        ALTER TABLE orders ADD COLUMN IF NOT EXISTS total_price double precision;
+        UPDATE orders o
+           SET total_price = COALESCE((SELECT SUM(l.price * l.quantity) FROM order_lines l WHERE l.order_id = o.id), 0)
+         WHERE o.total_price IS NULL;
+    END IF;
+END $$
+@@
+
+-- Orders carry an optimistic-locking version used by the conditional state transitions;
+-- existing rows start at 0 (Hibernate would add the column as nullable).
+DO $$
+BEGIN
+    IF to_regclass('orders') IS NOT NULL THEN
+        ALTER TABLE orders ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+    END IF;
+END $$
+@@
@@ -0,0 +1,83 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.entity.MenuItem;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.repository.MenuItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Product names that differ only in case are distinct menu items in the database but share a catalog key;
+ * an unavailable one must never hide an available one.
+ */
+class MenuCatalogTests {
+
+    private static final Long RESTAURANT_ID = 1L;
+
+    private final MenuItemRepository menuItemRepository = mock(MenuItemRepository.class);
+    private final Restaurant restaurant = new Restaurant();
+    private MenuCatalog menuCatalog;
+
+    @BeforeEach
+    void setUp() {
+        restaurant.setId(RESTAURANT_ID);
+        menuCatalog = new MenuCatalog();
+        ReflectionTestUtils.setField(menuCatalog, "menuItemRepository", menuItemRepository);
+    }
+
+    @Test
+    void availableItemWinsWhenLoadedBeforeUnavailableDuplicate() {
+        loadMenu(menuItem(10L, "Pizza", 9.5, true), menuItem(11L, "pizza", 7.0, false));
+
+        assertThat(menuCatalog.findAvailable(RESTAURANT_ID, " PIZZA "))
+                .hasValueSatisfying(entry -> assertThat(entry.menuItemId()).isEqualTo(10L));
+    }
+
+    @Test
+    void availableItemWinsWhenLoadedAfterUnavailableDuplicate() {
+        loadMenu(menuItem(11L, "pizza", 7.0, false), menuItem(10L, "Pizza", 9.5, true));
+
+        assertThat(menuCatalog.findAvailable(RESTAURANT_ID, "pizza"))
+                .hasValueSatisfying(entry -> assertThat(entry.menuItemId()).isEqualTo(10L));
+    }
+
+    @Test
+    void savingUnavailableDuplicateKeepsAvailableItem() {
+        loadMenu(menuItem(10L, "Pizza", 9.5, true));
+
+        menuCatalog.menuItemSaved(menuItem(11L, "pizza", 7.0, false)); // no transaction: applied at once
+
+        assertThat(menuCatalog.findAvailable(RESTAURANT_ID, "Pizza"))
+                .hasValueSatisfying(entry -> assertThat(entry.menuItemId()).isEqualTo(10L));
+    }
+
+    @Test
+    void duplicateBecomesVisibleWhenTheOtherItemIsDeletedOrUnavailable() {
+        loadMenu(menuItem(10L, "Pizza", 9.5, true), menuItem(11L, "pizza", 7.0, true));
+
+        menuCatalog.menuItemSaved(menuItem(10L, "Pizza", 9.5, false));
+        assertThat(menuCatalog.findAvailable(RESTAURANT_ID, "Pizza"))
+                .hasValueSatisfying(entry -> assertThat(entry.menuItemId()).isEqualTo(11L));
+
+        menuCatalog.menuItemDeleted(RESTAURANT_ID, 11L);
+        assertThat(menuCatalog.findAvailable(RESTAURANT_ID, "Pizza")).isEmpty();
+    }
+
+    private void loadMenu(MenuItem... items) {
+        when(menuItemRepository.findByRestaurantId(RESTAURANT_ID)).thenReturn(List.of(items));
+        menuCatalog.findAvailable(RESTAURANT_ID, "anything"); // loads and caches the menu
+    }
+
+    private MenuItem menuItem(Long id, String productName, double price, boolean available) {
+        MenuItem item = new MenuItem(restaurant, productName, price, available);
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.foodndeliv.service;
+
+import com.example.foodndeliv.dto.CursorPageDTO;
+import com.example.foodndeliv.dto.OrderResponseDTO;
+import com.example.foodndeliv.entity.Customer;
+import com.example.foodndeliv.entity.Order;
+import com.example.foodndeliv.entity.OrderLine;
+import com.example.foodndeliv.entity.Restaurant;
+import com.example.foodndeliv.mapper.OrderMapper;
+import com.example.foodndeliv.types.CustomerState;
+import com.example.foodndeliv.types.OrderState;
+import com.example.foodndeliv.types.RestaurantState;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The orders page must cost the same number of statements however many orders it returns:
+ * customer and restaurant come with the orders (entity graph) and the lines in one batch
+ * (hibernate.default_batch_fetch_size), rather than one query per order.
+ * Runs on an embedded database; the PostgreSQL upgrade script and the second-level cache are off.
+ */
+@DataJpaTest(properties = {
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({OrderService.class, KeysetPaging.class, OrderQueryCountTests.Config.class})
+class OrderQueryCountTests {
+
+    // Stays within one line batch (default_batch_fetch_size=100) for both N and 2N
+    private static final int ORDERS = 40;
+
+    @TestConfiguration
+    @ComponentScan(basePackageClasses = OrderMapper.class)
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @MockBean
+    private OrderPricer orderPricer;
+
+    @MockBean
+    private DispatchService dispatchService;
+
+    @MockBean
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private int seeded;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void ordersPageQueryCountDoesNotGrowWithOrders() {
+        seedOrders(ORDERS);
+        long statementsForN = preparedStatementsForOrdersPage(ORDERS);
+
+        seedOrders(ORDERS);
+        long statementsFor2N = preparedStatementsForOrdersPage(2 * ORDERS);
+
+        assertThat(statementsForN).isPositive();
+        assertThat(statementsFor2N).isEqualTo(statementsForN);
+    }
+
+    private long preparedStatementsForOrdersPage(int expectedOrders) {
+        entityManager.flush();
+        entityManager.clear(); // nothing may come from the persistence context
+        statistics.clear();
+
+        CursorPageDTO<OrderResponseDTO> page = orderService.getOrdersPage(null, 2 * ORDERS);
+
+        assertThat(page.getItems()).hasSize(expectedOrders);
+        assertThat(page.getItems()).allSatisfy(order -> {
+            assertThat(order.getCustomer()).isNotNull();
+            assertThat(order.getRestaurant()).isNotNull();
+            assertThat(order.getOrderLines()).hasSize(2);
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Each order gets its own customer and restaurant, so nothing is shared between rows
+    private void seedOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = seeded++;
+            Customer customer = new Customer();
+            customer.setName("customer-" + n);
+            customer.setEmail("customer-" + n + "@example.org");
+            customer.setState(CustomerState.ACTIVE);
+            entityManager.persist(customer);
+
+            Restaurant restaurant = new Restaurant();
+            restaurant.setName("restaurant-" + n);
+            restaurant.setState(RestaurantState.OPEN);
+            entityManager.persist(restaurant);
+
+            Order order = new Order();
+            order.setCustomer(customer);
+            order.setRestaurant(restaurant);
+            order.setState(OrderState.OPEN);
+            order.setTotalPrice(0.0);
+            for (String product : new String[] {"Pizza", "Soda"}) {
+                OrderLine line = new OrderLine();
+                line.setProductName(product);
+                line.setQuantity(1);
+                line.setPrice(5.0);
+                line.setOrder(order);
+                order.getOrderLines().add(line);
+            }
+            entityManager.persist(order);
+        }
+    }
+}